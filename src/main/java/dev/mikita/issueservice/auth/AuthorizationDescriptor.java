@@ -0,0 +1,45 @@
+package dev.mikita.issueservice.auth;
+
+import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.entity.UserRole;
+import dev.mikita.issueservice.entity.UserStatus;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The roles and statuses a handler accepts, compiled from its {@link FirebaseAuthorization} annotation.
+ * An empty set accepts any value.
+ *
+ * @param roles    the accepted roles
+ * @param statuses the accepted statuses
+ */
+public record AuthorizationDescriptor(Set<UserRole> roles, Set<UserStatus> statuses) {
+    /**
+     * Compiles the annotation.
+     *
+     * @param annotation the annotation
+     * @return the descriptor
+     * @throws IllegalArgumentException when the annotation names an unknown role or status
+     */
+    public static AuthorizationDescriptor of(FirebaseAuthorization annotation) {
+        EnumSet<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        Arrays.stream(annotation.roles()).map(UserRole::valueOf).forEach(roles::add);
+        EnumSet<UserStatus> statuses = EnumSet.noneOf(UserStatus.class);
+        Arrays.stream(annotation.statuses()).map(UserStatus::valueOf).forEach(statuses::add);
+
+        return new AuthorizationDescriptor(Collections.unmodifiableSet(roles), Collections.unmodifiableSet(statuses));
+    }
+
+    /**
+     * Tells whether the user is accepted.
+     *
+     * @param role   the role, null when unknown
+     * @param status the status, null when unknown
+     * @return whether the user is accepted
+     */
+    public boolean permits(UserRole role, UserStatus status) {
+        return (roles.isEmpty() || roles.contains(role)) && (statuses.isEmpty() || statuses.contains(status));
+    }
+}
@@ -0,0 +1,91 @@
+package dev.mikita.issueservice.auth;
+
+import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.cache.FirebaseTokenCache;
+import jakarta.security.auth.message.AuthException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorizes requests to handlers annotated with {@link FirebaseAuthorization}.
+ * The annotations are compiled into descriptors once, when the handler mappings are ready,
+ * so a request costs one map lookup besides the token verification.
+ * The authorized user is stored on the request as a {@link FirebasePrincipal}.
+ */
+@Component
+public class FirebaseAuthorizationInterceptor implements HandlerInterceptor {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final FirebaseTokenCache firebaseTokenCache;
+    // Handlers without the annotation map to an empty descriptor
+    private final Map<Method, Optional<AuthorizationDescriptor>> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Firebase authorization interceptor.
+     *
+     * @param firebaseTokenCache the firebase token cache
+     */
+    @Autowired
+    public FirebaseAuthorizationInterceptor(FirebaseTokenCache firebaseTokenCache) {
+        this.firebaseTokenCache = firebaseTokenCache;
+    }
+
+    /**
+     * Compiles the descriptors of all mapped handlers, failing the startup on an unknown role or status.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values().stream()
+                .flatMap(mapping -> mapping.getHandlerMethods().values().stream())
+                .forEach(handler -> descriptors.computeIfAbsent(handler.getMethod(), this::compile));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        Optional<AuthorizationDescriptor> descriptor = descriptors.get(handlerMethod.getMethod());
+        if (descriptor == null) {
+            descriptor = descriptors.computeIfAbsent(handlerMethod.getMethod(), this::compile);
+        }
+        if (descriptor.isEmpty()) {
+            return true;
+        }
+
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new AuthException("Unauthorized");
+        }
+
+        FirebasePrincipal principal = firebaseTokenCache.verify(authorization.substring(BEARER_PREFIX.length()));
+        if (!descriptor.get().permits(principal.role(), principal.status())) {
+            throw new AuthException("Unauthorized");
+        }
+
+        request.setAttribute(FirebasePrincipal.ATTRIBUTE, principal);
+        return true;
+    }
+
+    private Optional<AuthorizationDescriptor> compile(Method method) {
+        return Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(method, FirebaseAuthorization.class))
+                .map(AuthorizationDescriptor::of);
+    }
+}
@@ -0,0 +1,67 @@
+package dev.mikita.issueservice.auth;
+
+import dev.mikita.issueservice.entity.UserRole;
+import dev.mikita.issueservice.entity.UserStatus;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The user of a verified Firebase ID token, with the role and status claims already parsed.
+ *
+ * @param uid    the user id
+ * @param role   the role, null when the claim is missing or unknown
+ * @param status the status, null when the claim is missing or unknown
+ * @param claims the claims of the token
+ */
+public record FirebasePrincipal(String uid, UserRole role, UserStatus status, Map<String, Object> claims) {
+    /**
+     * The request attribute holding the principal.
+     */
+    public static final String ATTRIBUTE = FirebasePrincipal.class.getName();
+
+    /**
+     * Creates the principal from the claims of a verified token.
+     *
+     * @param uid    the user id
+     * @param claims the claims
+     * @return the principal
+     */
+    public static FirebasePrincipal of(String uid, Map<String, Object> claims) {
+        return new FirebasePrincipal(uid, parse(UserRole.class, claims.get("role")),
+                parse(UserStatus.class, claims.get("status")), Collections.unmodifiableMap(new HashMap<>(claims)));
+    }
+
+    /**
+     * Gets the principal of the request.
+     *
+     * @param request the request
+     * @return the principal, null when the handler does not require authorization
+     */
+    public static FirebasePrincipal of(HttpServletRequest request) {
+        return (FirebasePrincipal) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Gets a claim of the token.
+     *
+     * @param name the claim name
+     * @return the claim value, null when the token has no such claim
+     */
+    public Object claim(String name) {
+        return claims.get(name);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, Object claim) {
+        if (!(claim instanceof String name)) {
+            return null;
+        }
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.mikita.issueservice.auth;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The public keys signing Firebase ID tokens, held in memory and refreshed in the background.
+ * The key set is fetched again when its Cache-Control max-age runs out, or soon after a token
+ * names a key that is not known yet, so no request waits for the network. Until the first fetch
+ * succeeds no key is known and every token is rejected.
+ */
+public class FirebasePublicKeys {
+    private static final Logger log = LoggerFactory.getLogger(FirebasePublicKeys.class);
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final TypeReference<Map<String, String>> MAP_TYPE = new TypeReference<>() {};
+
+    private final URI uri;
+    private final TaskScheduler taskScheduler;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile Instant attemptedAt = Instant.EPOCH;
+    private ScheduledFuture<?> nextRefresh;
+    private Instant nextRefreshAt;
+
+    /**
+     * Instantiates new Firebase public keys.
+     *
+     * @param uri           the URI of the X.509 certificates by key id
+     * @param taskScheduler the task scheduler
+     */
+    public FirebasePublicKeys(URI uri, TaskScheduler taskScheduler) {
+        this.uri = uri;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Schedules the first fetch of the keys, so that startup does not wait for the network.
+     */
+    public void start() {
+        schedule(Duration.ZERO);
+    }
+
+    /**
+     * Gets the public key.
+     *
+     * @param keyId the key id
+     * @return the public key, null when it is not known
+     */
+    public PublicKey get(String keyId) {
+        PublicKey key = keys.get(keyId);
+        if (key == null && attemptedAt.plus(MIN_REFRESH_INTERVAL).isBefore(Instant.now())) {
+            schedule(Duration.ZERO);
+        }
+        return key;
+    }
+
+    /**
+     * Fetches the keys and schedules the next refresh by their max-age,
+     * a failed fetch keeps the current keys and is retried shortly.
+     */
+    public void refresh() {
+        synchronized (this) {
+            nextRefresh = null;
+        }
+        attemptedAt = Instant.now();
+
+        Duration next = MIN_REFRESH_INTERVAL;
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status " + response.statusCode());
+            }
+
+            keys = parse(response.body());
+            next = maxAge(response.headers().firstValue("Cache-Control").orElse(""));
+            log.info("Loaded {} Firebase public keys, next refresh in {}", keys.size(), next);
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("Firebase public keys could not be loaded", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            schedule(next);
+        }
+    }
+
+    /**
+     * Schedules a refresh, unless one is already due sooner.
+     */
+    private synchronized void schedule(Duration delay) {
+        Instant at = Instant.now().plus(delay);
+        if (nextRefresh != null) {
+            if (!nextRefreshAt.isAfter(at)) {
+                return;
+            }
+            nextRefresh.cancel(false);
+        }
+
+        nextRefreshAt = at;
+        nextRefresh = taskScheduler.schedule(this::refresh, at);
+    }
+
+    private Map<String, PublicKey> parse(String body) throws IOException, GeneralSecurityException {
+        CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (Map.Entry<String, String> certificate : objectMapper.readValue(body, MAP_TYPE).entrySet()) {
+            parsed.put(certificate.getKey(), certificateFactory.generateCertificate(
+                    new ByteArrayInputStream(certificate.getValue().getBytes(StandardCharsets.US_ASCII))).getPublicKey());
+        }
+        return Map.copyOf(parsed);
+    }
+
+    private static Duration maxAge(String cacheControl) {
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        if (!matcher.find()) {
+            return DEFAULT_MAX_AGE;
+        }
+
+        Duration maxAge = Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+        return maxAge.compareTo(MIN_REFRESH_INTERVAL) < 0 ? MIN_REFRESH_INTERVAL : maxAge;
+    }
+}
@@ -0,0 +1,20 @@
+package dev.mikita.issueservice.auth;
+
+import com.google.firebase.auth.FirebaseAuthException;
+import jakarta.security.auth.message.AuthException;
+
+/**
+ * Verifies Firebase ID tokens.
+ */
+@FunctionalInterface
+public interface FirebaseTokenVerifier {
+    /**
+     * Verifies the ID token.
+     *
+     * @param token the raw ID token
+     * @return the user of the verified token
+     * @throws FirebaseAuthException when the Firebase SDK rejects the token
+     * @throws AuthException         when the token is rejected locally
+     */
+    FirebasePrincipal verify(String token) throws FirebaseAuthException, AuthException;
+}
@@ -0,0 +1,104 @@
+package dev.mikita.issueservice.auth;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.security.auth.message.AuthException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Verifies Firebase ID tokens in process, without calling the Firebase SDK.
+ * The RS256 signature is checked against the public key named by the token,
+ * then the audience, issuer, subject and validity times are checked the way the SDK does.
+ */
+public class LocalFirebaseTokenVerifier implements FirebaseTokenVerifier {
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+    private static final long CLOCK_SKEW_SECONDS = Duration.ofMinutes(5).toSeconds();
+    private static final int MAX_SUBJECT_LENGTH = 128;
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final String projectId;
+    private final Function<String, PublicKey> publicKeys;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Instantiates a new Local firebase token verifier.
+     *
+     * @param projectId  the Firebase project id
+     * @param publicKeys the public keys by key id, returning null for an unknown key
+     * @param clock      the clock
+     */
+    public LocalFirebaseTokenVerifier(String projectId, Function<String, PublicKey> publicKeys, Clock clock) {
+        this.projectId = projectId;
+        this.publicKeys = publicKeys;
+        this.clock = clock;
+    }
+
+    @Override
+    public FirebasePrincipal verify(String token) throws AuthException {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new AuthException("Malformed token");
+        }
+
+        Map<String, Object> header = decode(parts[0]);
+        if (!"RS256".equals(header.get("alg")) || !(header.get("kid") instanceof String keyId)) {
+            throw new AuthException("Unsupported token algorithm");
+        }
+
+        PublicKey publicKey = publicKeys.apply(keyId);
+        if (publicKey == null) {
+            throw new AuthException("Unknown token key");
+        }
+        if (!hasValidSignature(parts, publicKey)) {
+            throw new AuthException("Invalid token signature");
+        }
+
+        Map<String, Object> claims = decode(parts[1]);
+        long now = clock.instant().getEpochSecond();
+        if (!projectId.equals(claims.get("aud"))
+                || !(ISSUER_PREFIX + projectId).equals(claims.get("iss"))) {
+            throw new AuthException("Token is issued for another project");
+        }
+        if (!(claims.get("sub") instanceof String subject) || subject.isEmpty()
+                || subject.length() > MAX_SUBJECT_LENGTH) {
+            throw new AuthException("Invalid token subject");
+        }
+        if (!(claims.get("exp") instanceof Number expiration) || expiration.longValue() + CLOCK_SKEW_SECONDS <= now) {
+            throw new AuthException("Token has expired");
+        }
+        if (!(claims.get("iat") instanceof Number issuedAt) || issuedAt.longValue() - CLOCK_SKEW_SECONDS > now) {
+            throw new AuthException("Token is issued in the future");
+        }
+
+        return FirebasePrincipal.of(subject, claims);
+    }
+
+    private Map<String, Object> decode(String part) throws AuthException {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(part), MAP_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new AuthException("Malformed token");
+        }
+    }
+
+    private static boolean hasValidSignature(String[] parts, PublicKey publicKey) {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(publicKey);
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return false;
+        }
+    }
+}
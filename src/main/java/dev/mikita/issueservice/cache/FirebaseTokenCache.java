@@ -0,0 +1,114 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.firebase.auth.FirebaseAuthException;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
+import dev.mikita.issueservice.auth.FirebaseTokenVerifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.security.auth.message.AuthException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of verified Firebase ID tokens, so that a client repeating its token is not verified again.
+ * Tokens are keyed by the SHA-256 of the raw token, the raw token itself is never held.
+ * A token is kept until its expiration time, failed verifications are not cached.
+ * Hits and misses are published as the "firebase.tokens" cache metrics
+ * and the time spent verifying as "firebase.tokens.verification".
+ */
+@Component
+public class FirebaseTokenCache {
+    private final Cache<String, FirebasePrincipal> tokens;
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
+    private final Timer verification;
+
+    /**
+     * Instantiates a new Firebase token cache.
+     *
+     * @param maximumSize           the maximum number of cached tokens
+     * @param firebaseTokenVerifier the firebase token verifier
+     * @param meterRegistry         the meter registry
+     */
+    @Autowired
+    public FirebaseTokenCache(@Value("${firebase.token-cache.maximum-size:100000}") long maximumSize,
+                              FirebaseTokenVerifier firebaseTokenVerifier,
+                              MeterRegistry meterRegistry) {
+        this.firebaseTokenVerifier = firebaseTokenVerifier;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, FirebasePrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, FirebasePrincipal principal, long currentTime) {
+                        Object expiration = principal.claim("exp");
+                        if (!(expiration instanceof Number seconds)) {
+                            return 0;
+                        }
+                        long millis = seconds.longValue() * 1000 - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, FirebasePrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, FirebasePrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "firebase.tokens");
+        this.verification = Timer.builder("firebase.tokens.verification")
+                .description("The time spent verifying Firebase ID tokens that were not cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the ID token, unless the same token was verified before and has not expired yet.
+     *
+     * @param token the raw ID token
+     * @return the user of the verified token
+     * @throws FirebaseAuthException when the Firebase SDK rejects the token
+     * @throws AuthException         when the token is rejected locally
+     */
+    public FirebasePrincipal verify(String token) throws FirebaseAuthException, AuthException {
+        String key = hash(token);
+        FirebasePrincipal principal = tokens.getIfPresent(key);
+        if (principal != null) {
+            return principal;
+        }
+
+        long start = System.nanoTime();
+        try {
+            principal = firebaseTokenVerifier.verify(token);
+        } finally {
+            verification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        tokens.put(key, principal);
+        return principal;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.index.IndexedIssue;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import dev.mikita.issueservice.util.Geohash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the issues of a geohash cell, keyed by the cell and the filter.
+ * Viewports covering the same cells share entries. A committed issue change
+ * invalidates only the cells containing the issue, the TTL bounds the staleness
+ * of a cell loaded concurrently with a change.
+ * Only created when the spatial index is disabled, otherwise the index answers the squares it covers
+ * and the map cache the remaining ones.
+ */
+@Component
+@ConditionalOnProperty(name = "issue.spatial-index.enabled", havingValue = "false")
+public class IssueCellCache {
+    private final Cache<CellKey, Cell> cells;
+
+    /**
+     * Issues of a cell. A cell holding more issues than can be returned is kept
+     * without them, marked as incomplete.
+     *
+     * @param issues   the issues
+     * @param complete whether all issues of the cell are held
+     */
+    public record Cell(List<IndexedIssue> issues, boolean complete) {}
+
+    private record CellKey(String cell, IssueFilter filter) {}
+
+    /**
+     * Instantiates a new Issue cell cache.
+     *
+     * @param ttl           the time to live of a cell
+     * @param maximumIssues the maximum total number of cached issues
+     */
+    @Autowired
+    public IssueCellCache(@Value("${issue.cell-cache.ttl:60s}") Duration ttl,
+                          @Value("${issue.cell-cache.maximum-issues:200000}") long maximumIssues) {
+        this.cells = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maximumIssues)
+                .<CellKey, Cell>weigher((key, cell) -> cell.issues().size() + 1)
+                .build();
+    }
+
+    /**
+     * Gets the issues of the cell, loading them only when they are not cached.
+     *
+     * @param cell   the geohash of the cell
+     * @param filter the filter, must not be modified afterwards
+     * @param loader the cell query
+     * @return the cell
+     */
+    public Cell get(String cell, IssueFilter filter, Supplier<Cell> loader) {
+        return cells.get(new CellKey(cell, filter), key -> loader.get());
+    }
+
+    /**
+     * Invalidates the cells containing the changed issue, at every precision.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        String geohash = Geohash.encode(event.getCoordinates(), Geohash.MAX_PRECISION);
+        cells.asMap().keySet().removeIf(key -> geohash.startsWith(key.cell()));
+    }
+}
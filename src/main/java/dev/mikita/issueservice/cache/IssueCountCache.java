@@ -0,0 +1,45 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of issue totals keyed by the filter shape.
+ * Totals may lag behind writes by at most the configured TTL.
+ */
+@Component
+public class IssueCountCache {
+    private final Cache<IssueFilter, Long> totals;
+
+    /**
+     * Instantiates a new Issue count cache.
+     *
+     * @param ttl         the time to live of a total
+     * @param maximumSize the maximum number of cached totals
+     */
+    @Autowired
+    public IssueCountCache(@Value("${issue.count-cache.ttl:30s}") Duration ttl,
+                           @Value("${issue.count-cache.maximum-size:10000}") long maximumSize) {
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Gets the total for the filter, counting it only when it is not cached.
+     *
+     * @param filter  the filter, must not be modified afterwards
+     * @param counter the count query
+     * @return the total
+     */
+    public long get(IssueFilter filter, Supplier<Long> counter) {
+        return totals.get(filter, key -> counter.get());
+    }
+}
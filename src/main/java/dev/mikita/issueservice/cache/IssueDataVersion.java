@@ -0,0 +1,35 @@
+package dev.mikita.issueservice.cache;
+
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the issue data served by the map endpoints.
+ * Incremented after every committed issue change, so cache entries keyed by
+ * an older version are never served again.
+ */
+@Component
+public class IssueDataVersion {
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Gets the current version.
+     *
+     * @return the version
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Moves to a new version once the change is committed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
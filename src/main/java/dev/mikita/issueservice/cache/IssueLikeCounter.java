@@ -0,0 +1,126 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mikita.issueservice.event.IssueLikeChangedEvent;
+import dev.mikita.issueservice.repository.IssueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory like counters of issues, so reading the like count of a viral issue does not hit its row.
+ * Committed likes and unlikes are added to a striped counter of the issue. On a schedule, the likes of
+ * the changed issues are recounted from bc_like, correcting their like_count column and resetting their counters.
+ * Counters expire after the configured TTL, which bounds the lag behind likes made on other instances.
+ */
+@Component
+public class IssueLikeCounter {
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final Cache<Long, LongAdder> counters;
+    private final Set<Long> changedIssueIds = ConcurrentHashMap.newKeySet();
+    private final IssueRepository issueRepository;
+    private final TransactionTemplate transaction;
+
+    /**
+     * Instantiates a new Issue like counter.
+     *
+     * @param ttl                the time to live of a counter
+     * @param maximumSize        the maximum number of counters
+     * @param issueRepository    the issue repository
+     * @param transactionManager the transaction manager
+     */
+    @Autowired
+    public IssueLikeCounter(@Value("${issue.like-counter.ttl:60s}") Duration ttl,
+                            @Value("${issue.like-counter.maximum-size:100000}") long maximumSize,
+                            IssueRepository issueRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.counters = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+        this.issueRepository = issueRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Gets the like count of the issue, reading it from the database only when it is not counted yet.
+     *
+     * @param issueId the issue id
+     * @return the like count, null when the issue does not exist
+     */
+    public Long get(Long issueId) {
+        LongAdder counter = counters.get(issueId, id -> {
+            Integer likeCount = issueRepository.findLikeCountById(id);
+            if (likeCount == null) {
+                return null;
+            }
+
+            LongAdder loaded = new LongAdder();
+            loaded.add(likeCount);
+            return loaded;
+        });
+
+        return counter == null ? null : Math.max(counter.sum(), 0);
+    }
+
+    /**
+     * Counts a committed like or unlike and marks the issue for reconciliation.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(IssueLikeChangedEvent event) {
+        changedIssueIds.add(event.getIssueId());
+        LongAdder counter = counters.getIfPresent(event.getIssueId());
+        if (counter != null) {
+            counter.add(event.isLiked() ? 1 : -1);
+        }
+    }
+
+    /**
+     * Recounts the likes of the issues changed since the last run.
+     * A change racing with the recount marks its issue again, so it is corrected by the next run.
+     */
+    @Scheduled(fixedDelayString = "${issue.like-counter.reconcile-interval:PT10S}")
+    public void reconcile() {
+        List<Long> batch = new ArrayList<>(RECONCILE_BATCH_SIZE);
+        Iterator<Long> iterator = changedIssueIds.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+
+            if (batch.size() == RECONCILE_BATCH_SIZE || !iterator.hasNext()) {
+                reconcile(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void reconcile(List<Long> issueIds) {
+        List<Object[]> likeCounts = transaction.execute(status -> {
+            issueRepository.recountLikes(issueIds);
+            return issueRepository.findLikeCountsByIdIn(issueIds);
+        });
+
+        for (Object[] likeCount : likeCounts) {
+            LongAdder counter = counters.getIfPresent((Long) likeCount[0]);
+            if (counter != null) {
+                counter.reset();
+                counter.add((Integer) likeCount[1]);
+            }
+        }
+    }
+}
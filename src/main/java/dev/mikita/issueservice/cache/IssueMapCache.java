@@ -0,0 +1,181 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mikita.issueservice.dto.response.common.IssueShortResponseDto;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import dev.mikita.issueservice.util.SphericalDistance;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the map endpoint results. Squares and circles are snapped outwards to a grid
+ * scaled to their size, so nearby requests with the same filter share an entry, and each
+ * request is then cut to its exact area. A committed issue change bumps the version and
+ * evicts the entries whose area contains the issue.
+ * Hits and misses are published as the "issue.map" cache metrics.
+ */
+@Component
+public class IssueMapCache {
+    private static final double METERS_PER_DEGREE = 111_320;
+    // A square spans about this many grid steps, so it is enlarged by at most half of it per side
+    private static final int GRID_STEPS = 4;
+    private static final double MIN_GRID_STEP = 1.0 / (1 << 17);
+
+    private final Cache<Key, Entry> entries;
+    private final AtomicLong version = new AtomicLong();
+
+    private record Key(IssueFilter filter, Envelope square, Coordinate center, double distance) {}
+
+    private record Entry(List<IssueShortResponseDto> issues, Envelope bounds) {}
+
+    /**
+     * Query of the issues in a circle.
+     */
+    @FunctionalInterface
+    public interface RadiusLoader {
+        /**
+         * Loads the issues in the circle.
+         *
+         * @param latitude  the latitude
+         * @param longitude the longitude
+         * @param distance  the distance in meters
+         * @return the issues, null when the result was truncated
+         */
+        List<IssueShortResponseDto> load(double latitude, double longitude, double distance);
+    }
+
+    /**
+     * Instantiates a new Issue map cache.
+     *
+     * @param ttl           the time to live of an entry
+     * @param maximumIssues the maximum total number of cached issues
+     * @param meterRegistry the meter registry
+     */
+    @Autowired
+    public IssueMapCache(@Value("${issue.map-cache.ttl:5m}") Duration ttl,
+                         @Value("${issue.map-cache.maximum-issues:500000}") long maximumIssues,
+                         MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maximumIssues)
+                .<Key, Entry>weigher((key, entry) -> entry.issues().size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "issue.map");
+    }
+
+    /**
+     * Gets the issues in the square.
+     *
+     * @param filter the filter, must not be modified afterwards
+     * @param square the square
+     * @param loader the query of the issues in the snapped square, returning null when truncated
+     * @return the issues, null when the snapped square holds too many issues to be cached
+     */
+    public List<IssueShortResponseDto> getInSquare(IssueFilter filter, Envelope square,
+                                                   Function<Envelope, List<IssueShortResponseDto>> loader) {
+        double step = gridStep(Math.max(square.getWidth(), square.getHeight()));
+        Envelope snapped = new Envelope(
+                Math.max(-180, Math.floor(square.getMinX() / step) * step),
+                Math.min(180, Math.ceil(square.getMaxX() / step) * step),
+                Math.max(-90, Math.floor(square.getMinY() / step) * step),
+                Math.min(90, Math.ceil(square.getMaxY() / step) * step));
+
+        List<IssueShortResponseDto> issues = get(new Key(filter, snapped, null, 0), snapped,
+                () -> loader.apply(snapped));
+        return issues == null ? null : issues.stream()
+                .filter(issue -> square.covers(issue.getCoordinates().getCoordinate()))
+                .toList();
+    }
+
+    /**
+     * Gets the issues in the circle. Distances are measured on a sphere.
+     *
+     * @param filter    the filter, must not be modified afterwards
+     * @param latitude  the latitude
+     * @param longitude the longitude
+     * @param distance  the distance in meters
+     * @param loader    the query of the issues in the snapped circle
+     * @return the issues, null when the snapped circle holds too many issues to be cached
+     */
+    public List<IssueShortResponseDto> getInRadius(IssueFilter filter, double latitude, double longitude,
+                                                   double distance, RadiusLoader loader) {
+        double step = gridStep(distance / METERS_PER_DEGREE);
+        double stepMeters = step * METERS_PER_DEGREE;
+        double snappedLatitude = Math.max(-90, Math.min(90, Math.round(latitude / step) * step));
+        double snappedLongitude = Math.round(longitude / step) * step;
+
+        // The snapped center is less than a step away, one more step keeps the circle inside
+        double snappedDistance = (Math.ceil(distance / stepMeters) + 1) * stepMeters;
+
+        Coordinate center = new Coordinate(longitude, latitude);
+        List<IssueShortResponseDto> issues = get(
+                new Key(filter, null, new Coordinate(snappedLongitude, snappedLatitude), snappedDistance),
+                bounds(snappedLatitude, snappedLongitude, snappedDistance),
+                () -> loader.load(snappedLatitude, snappedLongitude, snappedDistance));
+        return issues == null ? null : issues.stream()
+                .filter(issue -> SphericalDistance.between(center, issue.getCoordinates().getCoordinate()) <= distance)
+                .toList();
+    }
+
+    /**
+     * Bumps the version and evicts the entries whose area contains the changed issue.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        version.incrementAndGet();
+        Coordinate coordinate = event.getCoordinates().getCoordinate();
+        entries.asMap().values().removeIf(entry -> entry.bounds().covers(coordinate));
+    }
+
+    private List<IssueShortResponseDto> get(Key key, Envelope bounds, Supplier<List<IssueShortResponseDto>> loader) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null) {
+            return entry.issues();
+        }
+
+        long loadedVersion = version.get();
+        List<IssueShortResponseDto> issues = loader.get();
+        if (issues == null) {
+            return null;
+        }
+
+        entries.put(key, new Entry(issues, bounds));
+
+        // A change committed during the load may have been evicted before the entry was stored
+        if (version.get() != loadedVersion) {
+            entries.invalidate(key);
+        }
+        return issues;
+    }
+
+    private static double gridStep(double span) {
+        return Math.pow(2, Math.ceil(Math.log(Math.max(span / GRID_STEPS, MIN_GRID_STEP)) / Math.log(2)));
+    }
+
+    private static Envelope bounds(double latitude, double longitude, double distance) {
+        double latitudeDelta = distance / METERS_PER_DEGREE * 1.01;
+        double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(latitude));
+        if (!Double.isFinite(longitudeDelta) || latitude + latitudeDelta > 90 || latitude - latitudeDelta < -90) {
+            return new Envelope(-180, 180, -90, 90);
+        }
+
+        return new Envelope(longitude - longitudeDelta, longitude + longitudeDelta,
+                latitude - latitudeDelta, latitude + latitudeDelta);
+    }
+}
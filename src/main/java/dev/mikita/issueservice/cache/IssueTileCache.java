@@ -0,0 +1,69 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache of rendered vector tiles. A tile is immutable for its coordinates,
+ * filter and data version, so entries are never invalidated, only evicted by size and age.
+ * The data version only counts changes made through this instance, entries expire
+ * after the ttl so changes made through other instances show up within it.
+ */
+@Component
+public class IssueTileCache {
+    private final Cache<TileKey, Tile> tiles;
+    private final IssueDataVersion dataVersion;
+
+    /**
+     * Rendered tile with the entity tag derived from its content.
+     *
+     * @param data the encoded tile
+     * @param eTag the entity tag
+     */
+    public record Tile(byte[] data, String eTag) {}
+
+    private record TileKey(int z, int x, int y, IssueFilter filter, long version) {}
+
+    /**
+     * Instantiates a new Issue tile cache.
+     *
+     * @param dataVersion  the issue data version
+     * @param ttl          the time a tile is kept after it was rendered
+     * @param maximumBytes the maximum total size of cached tiles
+     */
+    @Autowired
+    public IssueTileCache(IssueDataVersion dataVersion,
+                          @Value("${issue.tile-cache.ttl:60s}") Duration ttl,
+                          @Value("${issue.tile-cache.maximum-bytes:67108864}") long maximumBytes) {
+        this.dataVersion = dataVersion;
+        this.tiles = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maximumBytes)
+                .<TileKey, Tile>weigher((key, tile) -> tile.data().length)
+                .build();
+    }
+
+    /**
+     * Gets the tile of the current data version, rendering it only when it is not cached.
+     *
+     * @param z        the zoom
+     * @param x        the column
+     * @param y        the row
+     * @param filter   the filter, must not be modified afterwards
+     * @param renderer the tile renderer
+     * @return the tile
+     */
+    public Tile get(int z, int x, int y, IssueFilter filter, Supplier<byte[]> renderer) {
+        return tiles.get(new TileKey(z, x, y, filter, dataVersion.current()), key -> {
+            byte[] data = renderer.get();
+            return new Tile(data, "\"" + DigestUtils.md5DigestAsHex(data) + "\"");
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package dev.mikita.issueservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mikita.issueservice.event.IssueLikeChangedEvent;
+import dev.mikita.issueservice.repository.LikeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+
+/**
+ * Cache of the issues liked by recently active residents, one compressed bitmap of issue ids per resident.
+ * A bitmap is loaded from bc_like on first access and kept up to date by committed likes and unlikes.
+ * Bitmaps are never modified in place, a change replaces the bitmap with an updated copy,
+ * so lookups read them without locking.
+ * Memory is bounded by the total size of the bitmaps, the least recently used residents are evicted first.
+ * A bitmap expires the ttl after it was loaded or last changed, which bounds how long likes made
+ * through other instances stay unseen.
+ * Hits and misses are published as the "issue.likes" cache metrics and the size as "issue.likes.bytes".
+ */
+@Component
+public class ResidentLikeCache {
+    private final Cache<String, Roaring64Bitmap> bitmaps;
+    private final LikeRepository likeRepository;
+
+    /**
+     * Instantiates a new Resident like cache.
+     *
+     * @param ttl            the time a bitmap is kept after it was loaded or last changed
+     * @param maximumBytes   the maximum total size of the bitmaps
+     * @param likeRepository the like repository
+     * @param meterRegistry  the meter registry
+     */
+    @Autowired
+    public ResidentLikeCache(@Value("${issue.like-cache.ttl:60s}") Duration ttl,
+                             @Value("${issue.like-cache.maximum-bytes:33554432}") long maximumBytes,
+                             LikeRepository likeRepository,
+                             MeterRegistry meterRegistry) {
+        this.likeRepository = likeRepository;
+        this.bitmaps = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maximumBytes)
+                .<String, Roaring64Bitmap>weigher((residentUid, bitmap) ->
+                        (int) Math.min(Integer.MAX_VALUE, bitmap.getLongSizeInBytes() + residentUid.length()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bitmaps, "issue.likes");
+        Gauge.builder("issue.likes.bytes", bitmaps, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(0L))
+                .description("The total size of the cached liked issue bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets whether the resident likes the issue.
+     *
+     * @param residentUid the resident id
+     * @param issueId     the issue id
+     * @return whether the issue is liked
+     */
+    public boolean isLiked(String residentUid, long issueId) {
+        return get(residentUid).contains(issueId);
+    }
+
+    /**
+     * Gets the issues liked by the resident, loading them when the resident is not cached.
+     * The bitmap must not be modified.
+     *
+     * @param residentUid the resident id
+     * @return the liked issue ids
+     */
+    public Roaring64Bitmap get(String residentUid) {
+        return bitmaps.get(residentUid, this::load);
+    }
+
+    /**
+     * Applies a committed like or unlike to the bitmap of the resident, if it is cached.
+     * A load in progress is waited for, so a bitmap read before the commit is corrected here.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(IssueLikeChangedEvent event) {
+        bitmaps.asMap().computeIfPresent(event.getResidentUid(), (residentUid, bitmap) -> {
+            if (bitmap.contains(event.getIssueId()) == event.isLiked()) {
+                return bitmap;
+            }
+
+            Roaring64Bitmap updated = bitmap.clone();
+            if (event.isLiked()) {
+                updated.addLong(event.getIssueId());
+            } else {
+                updated.removeLong(event.getIssueId());
+            }
+            updated.runOptimize();
+            return updated;
+        });
+    }
+
+    private Roaring64Bitmap load(String residentUid) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        likeRepository.findIssueIdsByResidentUid(residentUid).forEach(bitmap::addLong);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+}
@@ -12,15 +12,15 @@ import org.locationtech.jts.geom.Point;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * The type App config.
  */
 @Configuration
-@EnableAspectJAutoProxy
+@EnableScheduling
 public class AppConfig {
     /**
      * Rest template rest template.
@@ -5,27 +5,42 @@ import com.google.cloud.firestore.Firestore;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseToken;
 import com.google.firebase.cloud.FirestoreClient;
 import com.google.firebase.cloud.StorageClient;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
+import dev.mikita.issueservice.auth.FirebasePublicKeys;
+import dev.mikita.issueservice.auth.FirebaseTokenVerifier;
+import dev.mikita.issueservice.auth.LocalFirebaseTokenVerifier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.TaskScheduler;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.time.Clock;
 
 /**
  * The type Firebase config.
  */
 @Configuration
 public class FirebaseConfig {
+    private static final String PUBLIC_KEYS_URL =
+            "https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com";
+
     private final String firebaseStorageBucketName;
     private final String firebaseServiceAccountFile;
+    private final String firebaseProjectId;
 
     public FirebaseConfig(Environment env) {
         this.firebaseStorageBucketName = env.getProperty("firebase.storage.bucketName");
         this.firebaseServiceAccountFile = env.getProperty("firebase.service.account.file");
+        this.firebaseProjectId = env.getProperty("firebase.project-id");
     }
 
     /**
@@ -56,6 +71,46 @@ public class FirebaseConfig {
         return FirebaseAuth.getInstance(firebaseApp);
     }
 
+    /**
+     * Firebase public keys, only used by the local token verification. The keys are fetched in the background,
+     * so an unreachable key endpoint does not stop the startup.
+     *
+     * @param taskScheduler the task scheduler
+     * @return the firebase public keys
+     */
+    @Bean
+    @ConditionalOnProperty(name = "firebase.token-verification", havingValue = "local")
+    public FirebasePublicKeys firebasePublicKeys(TaskScheduler taskScheduler) {
+        FirebasePublicKeys publicKeys = new FirebasePublicKeys(URI.create(PUBLIC_KEYS_URL), taskScheduler);
+        publicKeys.start();
+        return publicKeys;
+    }
+
+    /**
+     * Firebase token verifier. Tokens are verified in process when firebase.token-verification is "local",
+     * otherwise by the Firebase SDK.
+     *
+     * @param firebaseAuth       the firebase auth
+     * @param firebasePublicKeys the firebase public keys
+     * @return the firebase token verifier
+     */
+    @Bean
+    public FirebaseTokenVerifier firebaseTokenVerifier(FirebaseAuth firebaseAuth,
+                                                       ObjectProvider<FirebasePublicKeys> firebasePublicKeys) {
+        FirebasePublicKeys publicKeys = firebasePublicKeys.getIfAvailable();
+        if (publicKeys == null) {
+            return token -> {
+                FirebaseToken verified = firebaseAuth.verifyIdToken(token);
+                return FirebasePrincipal.of(verified.getUid(), verified.getClaims());
+            };
+        }
+        if (firebaseProjectId == null || firebaseProjectId.isBlank()) {
+            throw new IllegalStateException("firebase.project-id must be set for the local token verification");
+        }
+
+        return new LocalFirebaseTokenVerifier(firebaseProjectId, publicKeys::get, Clock.systemUTC());
+    }
+
     /**
      * Firestore firestore.
      *
@@ -0,0 +1,46 @@
+package dev.mikita.issueservice.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers PostGIS operators that have no function form, and the point accessors Hibernate Spatial
+ * does not provide, so criteria queries can use them.
+ * Picked up by Hibernate through the service loader.
+ */
+public class SpatialFunctionContributor implements FunctionContributor {
+    /**
+     * Bounding box overlap of two geometries, answered by a GiST index.
+     */
+    public static final String BBOX_INTERSECTS = "bbox_intersects";
+
+    /**
+     * Distance of two geographies on the sphere, ordering by it is answered by a GiST index (KNN).
+     */
+    public static final String KNN_DISTANCE = "knn_distance";
+
+    /**
+     * Longitude of a point geometry.
+     */
+    public static final String POINT_LONGITUDE = "point_longitude";
+
+    /**
+     * Latitude of a point geometry.
+     */
+    public static final String POINT_LATITUDE = "point_latitude";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(BBOX_INTERSECTS, "(?1 && ?2)",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(KNN_DISTANCE, "(?1 <-> ?2)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+        functionContributions.getFunctionRegistry().registerPattern(POINT_LONGITUDE, "ST_X(?1)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+        functionContributions.getFunctionRegistry().registerPattern(POINT_LATITUDE, "ST_Y(?1)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
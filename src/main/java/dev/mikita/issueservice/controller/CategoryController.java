@@ -3,8 +3,8 @@ package dev.mikita.issueservice.controller;
 import dev.mikita.issueservice.annotation.FirebaseAuthorization;
 import dev.mikita.issueservice.dto.response.common.CategoryResponseDto;
 import dev.mikita.issueservice.entity.Category;
+import dev.mikita.issueservice.mapper.CategoryMapper;
 import dev.mikita.issueservice.service.CategoryService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -38,9 +38,8 @@ public class CategoryController {
     public ResponseEntity<List<CategoryResponseDto>> getCategories() {
         List<Category> categories = categoryService.getCategories();
 
-        ModelMapper modelMapper = new ModelMapper();
         List<CategoryResponseDto> response = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryResponseDto.class))
+                .map(CategoryMapper::toResponseDto)
                 .toList();
         return ResponseEntity.ok(response);
     }
@@ -54,8 +53,7 @@ public class CategoryController {
     @GetMapping(path = "/{id}", produces = "application/json")
     @FirebaseAuthorization(statuses = {"ACTIVE"})
     public ResponseEntity<CategoryResponseDto> getCategory(@PathVariable("id") Long id) {
-        CategoryResponseDto response = new ModelMapper().map(
-                categoryService.getCategoryById(id), CategoryResponseDto.class);
+        CategoryResponseDto response = CategoryMapper.toResponseDto(categoryService.getCategoryById(id));
         return ResponseEntity.ok(response);
     }
 }
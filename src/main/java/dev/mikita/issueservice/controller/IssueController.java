@@ -1,20 +1,24 @@
 package dev.mikita.issueservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
 import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
+import dev.mikita.issueservice.cache.IssueTileCache;
 import dev.mikita.issueservice.dto.request.GetIssuesInSquareRequestDto;
 import dev.mikita.issueservice.dto.response.common.*;
 import dev.mikita.issueservice.dto.response.common.IssueLikeStatusResponseDto;
 import dev.mikita.issueservice.dto.response.common.IssueLikesResponseDto;
 import dev.mikita.issueservice.dto.response.common.IssueModerationResponseResponseDto;
-import dev.mikita.issueservice.dto.response.employee.IssueReservationEmployeeResponseDto;
-import dev.mikita.issueservice.dto.response.employee.IssueSolutionEmployeeResponseDto;
-import dev.mikita.issueservice.dto.response.service.IssueReservationServiceResponseDto;
-import dev.mikita.issueservice.dto.response.service.IssueSolutionServiceResponseDto;
 import dev.mikita.issueservice.entity.*;
 import dev.mikita.issueservice.service.*;
 import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.mapper.IssueMapper;
+import dev.mikita.issueservice.mapper.IssueReservationMapper;
+import dev.mikita.issueservice.mapper.IssueSolutionMapper;
+import dev.mikita.issueservice.util.CompactCoordinatesWriter;
+import dev.mikita.issueservice.util.IssueCursor;
 import jakarta.security.auth.message.AuthException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -22,23 +26,27 @@ import lombok.Getter;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -52,6 +60,12 @@ public class IssueController {
     private final IssueSolutionService issueSolutionService;
     private final EmployeeService employeeService;
     private final DepartmentService departmentService;
+    private final ObjectMapper objectMapper;
+
+    private static final String TRUNCATED_HEADER = "X-Result-Truncated";
+    private static final String MVT_MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+    private static final Duration TILE_MAX_AGE = Duration.ofMinutes(1);
+    private static final MediaType COMPACT_COORDINATES = MediaType.parseMediaType(CompactCoordinatesWriter.MEDIA_TYPE);
 
     @Getter
     public enum OrderBy {
@@ -59,7 +73,7 @@ public class IssueController {
         STATUS("status"),
         TITLE("title"),
         CATEGORY("category"),
-        LIKES("likes");
+        LIKES("likeCount");
 
         private final String fieldName;
 
@@ -79,21 +93,25 @@ public class IssueController {
      * @param issueService            the issue service
      * @param issueReservationService the issue reservation service
      * @param issueSolutionService    the issue solution service
+     * @param employeeService         the employee service
+     * @param departmentService       the department service
+     * @param objectMapper            the object mapper
      */
     @Autowired
     public IssueController( IssueService issueService,
                             IssueReservationService issueReservationService,
                             IssueSolutionService issueSolutionService,
                             EmployeeService employeeService,
-                            DepartmentService departmentService) {
+                            DepartmentService departmentService,
+                            ObjectMapper objectMapper) {
         this.issueService = issueService;
         this.issueReservationService = issueReservationService;
         this.issueSolutionService = issueSolutionService;
         this.employeeService = employeeService;
         this.departmentService = departmentService;
+        this.objectMapper = objectMapper;
     }
 
-    // TODO: 07.12.2023 Add sorting by likes count
     @GetMapping(path = "", produces = "application/json")
     @FirebaseAuthorization(statuses = {"ACTIVE"})
     public ResponseEntity<Map<String, Object>> getIssues(
@@ -108,14 +126,16 @@ public class IssueController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(name = "order_by", required = false) OrderBy orderBy,
             @RequestParam(required = false) Order order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             HttpServletRequest request) {
 
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        UserRole currentUserRole = UserRole.valueOf(token.getClaims().get("role").toString());
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        UserRole currentUserRole = principal.role();
 
         // Authorization
         List<IssueStatus> allowedStatuses;
-        if (authorUid != null && currentUserRole.equals(UserRole.RESIDENT) && authorUid.equals(token.getUid())) {
+        if (authorUid != null && currentUserRole.equals(UserRole.RESIDENT) && authorUid.equals(principal.uid())) {
             allowedStatuses = List.of(IssueStatus.MODERATION, IssueStatus.PUBLISHED, IssueStatus.SOLVING,
                     IssueStatus.SOLVED, IssueStatus.DELETED);
         } else {
@@ -132,19 +152,29 @@ public class IssueController {
         // Pagination and sorting
         if (orderBy == null) orderBy = OrderBy.CREATION_DATE;
         if (order == null) order = Order.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(
-                Sort.Direction.fromString(order.toString()), orderBy.getFieldName()));
+        Sort.Order sortOrder = new Sort.Order(Sort.Direction.fromString(order.toString()), orderBy.getFieldName());
+
+        // Keyset pagination
+        if (cursor != null) {
+            Slice<Issue> sliceIssues = issueService.getIssuesAfter(statuses, authorUid, categories, from, to,
+                    IssueCursor.decode(cursor), sortOrder, size);
+            return ResponseEntity.ok(createCursorResponse(sliceIssues, orderBy, principal));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder));
+
+        // Count-free pagination
+        if (!withTotal) {
+            Slice<Issue> sliceIssues = issueService.getIssuesSlice(statuses, authorUid, categories, from, to, pageable);
+            return ResponseEntity.ok(createSliceResponse(sliceIssues, principal));
+        }
 
         Page<Issue> pageIssues = issueService.getIssues(statuses, authorUid, categories, from, to, pageable);
         List<Issue> issues = pageIssues.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
-        response.put("issues", issues.stream()
-                .map(issue -> modelMapper.map(issue, IssueResponseDto.class))
-                .collect(Collectors.toList()));
+        response.put("issues", toIssueResponseDtos(issues, principal));
         response.put("currentPage", pageIssues.getNumber());
         response.put("totalItems", pageIssues.getTotalElements());
         response.put("totalPages", pageIssues.getTotalPages());
@@ -154,7 +184,7 @@ public class IssueController {
 
     @GetMapping(path = "/radius", produces = "application/json")
     @FirebaseAuthorization(statuses = {"ACTIVE"})
-    public ResponseEntity<List<IssueShortResponseDto>> getIssuesInRadius(
+    public ResponseEntity<?> getIssuesInRadius(
             @RequestParam(required = false) List<IssueStatus> statuses,
             @RequestParam(required = false) List<Long> categories,
             @RequestParam(required = false)
@@ -163,7 +193,9 @@ public class IssueController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam Double distance,
             @RequestParam Double latitude,
-            @RequestParam Double longitude) {
+            @RequestParam Double longitude,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         List<IssueStatus> allowedStatuses = List.of(IssueStatus.PUBLISHED, IssueStatus.SOLVING, IssueStatus.SOLVED);
 
         // Merge statuses
@@ -173,14 +205,62 @@ public class IssueController {
             statuses = allowedStatuses;
         }
 
-        List<Issue> issues = issueService.getIssuesInRadius(statuses, categories, from, to, distance, latitude, longitude);
-        return ResponseEntity.ok(new ModelMapper().map(
-                issues, new ParameterizedTypeReference<List<IssueShortResponseDto>>() {}.getType()));
+        Slice<IssueDistanceResponseDto> sliceIssues = issueService.getIssuesInRadius(
+                statuses, categories, from, to, distance, latitude, longitude, cursor, size);
+        List<IssueDistanceResponseDto> issues = sliceIssues.getContent();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("issues", issues);
+        response.put("nextCursor", sliceIssues.hasNext()
+                ? IssueCursor.of(issues.get(issues.size() - 1)).encode()
+                : null);
+
+        return ResponseEntity.ok(response);
     }
 
-    @GetMapping(path = "/square", produces = "application/json")
+    @GetMapping(path = "/nearest", produces = "application/json")
     @FirebaseAuthorization(statuses = {"ACTIVE"})
-    public ResponseEntity<List<?>> getIssuesInSquare(@Valid GetIssuesInSquareRequestDto requestDto) {
+    public ResponseEntity<List<IssueDistanceResponseDto>> getNearestIssues(
+            @RequestParam(required = false) List<IssueStatus> statuses,
+            @RequestParam(required = false) List<Long> categories,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<IssueStatus> allowedStatuses = List.of(IssueStatus.PUBLISHED, IssueStatus.SOLVING, IssueStatus.SOLVED);
+
+        // Merge statuses
+        if (statuses != null) {
+            statuses = statuses.stream().filter(allowedStatuses::contains).collect(Collectors.toList());
+        } else {
+            statuses = allowedStatuses;
+        }
+
+        return ResponseEntity.ok(
+                issueService.getNearestIssues(statuses, categories, from, to, latitude, longitude, limit));
+    }
+
+    @GetMapping(path = "/trending", produces = "application/json")
+    @FirebaseAuthorization(statuses = {"ACTIVE"})
+    public ResponseEntity<List<IssueTrendingResponseDto>> getTrendingIssues(
+            @RequestParam(required = false) List<Long> categories,
+            @RequestParam(name = "min_longitude", required = false) Double minLongitude,
+            @RequestParam(name = "min_latitude", required = false) Double minLatitude,
+            @RequestParam(name = "max_longitude", required = false) Double maxLongitude,
+            @RequestParam(name = "max_latitude", required = false) Double maxLatitude,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(issueService.getTrendingIssues(
+                categories, minLongitude, minLatitude, maxLongitude, maxLatitude, limit));
+    }
+
+    @GetMapping(path = "/square", produces = {"application/json", CompactCoordinatesWriter.MEDIA_TYPE})
+    @FirebaseAuthorization(statuses = {"ACTIVE"})
+    public ResponseEntity<?> getIssuesInSquare(@Valid GetIssuesInSquareRequestDto requestDto,
+                                               @RequestParam(defaultValue = "false") boolean stream,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         List<IssueStatus> allowedStatuses = List.of(IssueStatus.PUBLISHED, IssueStatus.SOLVING, IssueStatus.SOLVED);
 
         // Merge statuses
@@ -192,13 +272,57 @@ public class IssueController {
             requestDto.setStatuses(allowedStatuses);
         }
 
-        List<Issue> issues = issueService.getIssuesInSquare(requestDto);
+        // Compact binary coordinates, only when asked for explicitly
+        if (accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(COMPACT_COORDINATES::equalsTypeAndSubtype)) {
+            return createCompactCoordinatesResponse(requestDto);
+        }
+
+        // Clusters at low zoom
+        if (issueService.isClustered(requestDto.getZoom())) {
+            return ResponseEntity.ok(issueService.getIssueClustersInSquare(requestDto));
+        }
+
+        boolean coordinatesOnly = requestDto.getCoordinatesOnly() != null && requestDto.getCoordinatesOnly();
+        if (stream) {
+            return coordinatesOnly
+                    ? createStreamingResponse((Consumer<CoordinatesResponseDto> consumer) ->
+                            issueService.streamIssuesCoordinatesInSquare(requestDto, consumer))
+                    : createStreamingResponse((Consumer<IssueShortResponseDto> consumer) ->
+                            issueService.streamIssuesInSquare(requestDto, consumer));
+        }
+
+        return coordinatesOnly
+                ? createBoundedResponse(issueService.getIssuesCoordinatesInSquare(requestDto))
+                : createBoundedResponse(issueService.getIssuesInSquare(requestDto));
+    }
+
+    @GetMapping(path = "/tiles/{z}/{x}/{y}.mvt", produces = MVT_MEDIA_TYPE)
+    @FirebaseAuthorization(statuses = {"ACTIVE"})
+    public ResponseEntity<byte[]> getIssuesTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            @RequestParam(required = false) List<IssueStatus> statuses,
+            @RequestParam(required = false) List<Long> categories,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<IssueStatus> allowedStatuses = List.of(IssueStatus.PUBLISHED, IssueStatus.SOLVING, IssueStatus.SOLVED);
 
-        Type responseType = requestDto.getCoordinatesOnly() != null && requestDto.getCoordinatesOnly()
-                ? new ParameterizedTypeReference<List<CoordinatesResponseDto>>() {}.getType()
-                : new ParameterizedTypeReference<List<IssueShortResponseDto>>() {}.getType();
+        // Merge statuses
+        if (statuses != null) {
+            statuses = statuses.stream().filter(allowedStatuses::contains).collect(Collectors.toList());
+        } else {
+            statuses = allowedStatuses;
+        }
 
-        return ResponseEntity.ok(new ModelMapper().map(issues, responseType));
+        // A matching If-None-Match is answered with 304 from the entity tag
+        IssueTileCache.Tile tile = issueService.getIssuesTile(z, x, y, statuses, categories, from, to);
+        return ResponseEntity.ok()
+                .eTag(tile.eTag())
+                .cacheControl(CacheControl.maxAge(TILE_MAX_AGE).cachePrivate())
+                .body(tile.data());
     }
 
     /**
@@ -211,15 +335,15 @@ public class IssueController {
     @FirebaseAuthorization(statuses = {"ACTIVE"})
     public ResponseEntity<IssueResponseDto> getIssue(@PathVariable Long id, HttpServletRequest request)
             throws AuthException {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
         Issue issue = issueService.findIssueById(id);
 
         if ((issue.getStatus() == IssueStatus.DELETED || issue.getStatus() == IssueStatus.MODERATION)
-            && !token.getUid().equals(issue.getAuthorUid())) {
+            && !principal.uid().equals(issue.getAuthorUid())) {
             throw new AuthException("Unauthorized");
         }
 
-        return ResponseEntity.ok(new ModelMapper().map(issue, IssueResponseDto.class));
+        return ResponseEntity.ok(toIssueResponseDtos(List.of(issue), principal).get(0));
     }
 
     /**
@@ -246,10 +370,10 @@ public class IssueController {
         Coordinate coordinate = new Coordinate(longitude, latitude);
         Point coordinates = geometryFactory.createPoint(coordinate);
 
-        // Firebase token
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        // Authorized user
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
-        issueService.createIssue(token.getUid(), title, description, categoryId, coordinates, data.getFile("photo"));
+        issueService.createIssue(principal.uid(), title, description, categoryId, coordinates, data.getFile("photo"));
     }
 
     /**
@@ -263,15 +387,15 @@ public class IssueController {
     public ResponseEntity<?> getIssueReservation(
             @PathVariable("id") Long id,
             HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
-        Class<?> responseClass = switch (UserRole.valueOf(token.getClaims().get("role").toString())) {
-            case EMPLOYEE -> IssueReservationEmployeeResponseDto.class;
-            case SERVICE -> IssueReservationServiceResponseDto.class;
-            default -> IssueReservationResponseDto.class;
+        Function<IssueReservation, ?> mapper = switch (principal.role()) {
+            case EMPLOYEE -> IssueReservationMapper::toEmployeeResponseDto;
+            case SERVICE -> IssueReservationMapper::toServiceResponseDto;
+            default -> IssueReservationMapper::toResponseDto;
         };
 
-        return ResponseEntity.ok(new ModelMapper().map(issueService.findIssueReservation(id), responseClass));
+        return ResponseEntity.ok(mapper.apply(issueService.findIssueReservation(id)));
     }
 
     /**
@@ -287,8 +411,8 @@ public class IssueController {
             @PathVariable("id") Long id,
             HttpServletRequest request)
             throws AuthException, ExecutionException, FirebaseAuthException, InterruptedException {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        issueReservationService.createIssueReservation(id, token);
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        issueReservationService.createIssueReservation(id, principal);
     }
 
     /**
@@ -303,15 +427,15 @@ public class IssueController {
     public ResponseEntity<?> getIssueSolution(
             @PathVariable("id") Long id,
             HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
-        Class<?> responseClass = switch (UserRole.valueOf(token.getClaims().get("role").toString())) {
-            case EMPLOYEE -> IssueSolutionEmployeeResponseDto.class;
-            case SERVICE -> IssueSolutionServiceResponseDto.class;
-            default -> IssueSolutionResponseDto.class;
+        Function<IssueSolution, ?> mapper = switch (principal.role()) {
+            case EMPLOYEE -> IssueSolutionMapper::toEmployeeResponseDto;
+            case SERVICE -> IssueSolutionMapper::toServiceResponseDto;
+            default -> IssueSolutionMapper::toResponseDto;
         };
 
-        return ResponseEntity.ok(new ModelMapper().map(issueService.findIssueSolution(id), responseClass));
+        return ResponseEntity.ok(mapper.apply(issueService.findIssueSolution(id)));
     }
 
     /**
@@ -332,8 +456,8 @@ public class IssueController {
         MultipartFile photoFile = data.getFile("photo");
 
         // Token
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        issueSolutionService.createIssueSolution(id, token.getUid(), description, photoFile);
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        issueSolutionService.createIssueSolution(id, principal.uid(), description, photoFile);
     }
 
     @GetMapping(path = "/{id}/moderation", produces = "application/json")
@@ -341,16 +465,16 @@ public class IssueController {
     public ResponseEntity<IssueModerationResponseResponseDto> getModerationResponse(@PathVariable Long id,
                                                                                     HttpServletRequest request)
             throws AuthException {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
-        if (token.getClaims().get("role").toString().equals("RESIDENT")) {
-            if (!issueService.findIssueById(id).getAuthorUid().equals(token.getUid())) {
+        if (principal.role() == UserRole.RESIDENT) {
+            if (!issueService.findIssueById(id).getAuthorUid().equals(principal.uid())) {
                 throw new AuthException("Unauthorized");
             }
         }
 
-        IssueModerationResponseResponseDto response = new ModelMapper().map(
-                issueService.getModerationResponseByIssueId(id), IssueModerationResponseResponseDto.class);
+        IssueModerationResponseResponseDto response = IssueMapper.toModerationResponseDto(
+                issueService.getModerationResponseByIssueId(id));
         return ResponseEntity.ok(response);
     }
 
@@ -368,25 +492,40 @@ public class IssueController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(name = "order_by", required = false) OrderBy orderBy,
             @RequestParam(required = false) Order order,
-            @PathVariable String uid) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @PathVariable String uid,
+            HttpServletRequest request) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
         // Pagination and sorting
         if (orderBy == null) orderBy = OrderBy.CREATION_DATE;
         if (order == null) order = Order.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(
-                Sort.Direction.fromString(order.toString()), orderBy.getFieldName()));
+        Sort.Order sortOrder = new Sort.Order(Sort.Direction.fromString(order.toString()), orderBy.getFieldName());
+
+        // Keyset pagination
+        if (cursor != null) {
+            Slice<Issue> sliceIssues = issueService.getIssuesByHolderAfter(uid, null, null, statuses, authorUid, categories, from, to,
+                    IssueCursor.decode(cursor), sortOrder, size);
+            return ResponseEntity.ok(createCursorResponse(sliceIssues, orderBy, principal));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder));
+
+        // Count-free pagination
+        if (!withTotal) {
+            Slice<Issue> sliceIssues = issueService.getIssuesByHolderSlice(
+                    uid, null, null, statuses, authorUid, categories, from, to, pageable);
+            return ResponseEntity.ok(createSliceResponse(sliceIssues, principal));
+        }
 
         Page<Issue> pageIssues = issueService.getIssuesByHolder(
                 uid, null, null, statuses, authorUid, categories, from, to, pageable);
         List<Issue> issues = pageIssues.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
-        response.put("issues", issues.stream()
-                .map(issue -> modelMapper.map(issue, IssueResponseDto.class))
-                .collect(Collectors.toList()));
+        response.put("issues", toIssueResponseDtos(issues, principal));
         response.put("currentPage", pageIssues.getNumber());
         response.put("totalItems", pageIssues.getTotalElements());
         response.put("totalPages", pageIssues.getTotalPages());
@@ -408,17 +547,19 @@ public class IssueController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(name = "order_by", required = false) OrderBy orderBy,
             @RequestParam(required = false) Order order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @PathVariable String uid,
             HttpServletRequest request)
             throws ExecutionException, InterruptedException, FirebaseAuthException, AuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -426,20 +567,31 @@ public class IssueController {
         // Pagination and sorting
         if (orderBy == null) orderBy = OrderBy.CREATION_DATE;
         if (order == null) order = Order.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(
-                Sort.Direction.fromString(order.toString()), orderBy.getFieldName()));
+        Sort.Order sortOrder = new Sort.Order(Sort.Direction.fromString(order.toString()), orderBy.getFieldName());
+
+        // Keyset pagination
+        if (cursor != null) {
+            Slice<Issue> sliceIssues = issueService.getIssuesByHolderAfter(null, uid, null, statuses, authorUid, categories, from, to,
+                    IssueCursor.decode(cursor), sortOrder, size);
+            return ResponseEntity.ok(createCursorResponse(sliceIssues, orderBy, principal));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder));
+
+        // Count-free pagination
+        if (!withTotal) {
+            Slice<Issue> sliceIssues = issueService.getIssuesByHolderSlice(
+                    null, uid, null, statuses, authorUid, categories, from, to, pageable);
+            return ResponseEntity.ok(createSliceResponse(sliceIssues, principal));
+        }
 
         Page<Issue> pageIssues = issueService.getIssuesByHolder(
                 null, uid, null, statuses, authorUid, categories, from, to, pageable);
         List<Issue> issues = pageIssues.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
-        response.put("issues", issues.stream()
-                .map(issue -> modelMapper.map(issue, IssueResponseDto.class))
-                .collect(Collectors.toList()));
+        response.put("issues", toIssueResponseDtos(issues, principal));
         response.put("currentPage", pageIssues.getNumber());
         response.put("totalItems", pageIssues.getTotalElements());
         response.put("totalPages", pageIssues.getTotalPages());
@@ -461,17 +613,19 @@ public class IssueController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(name = "order_by", required = false) OrderBy orderBy,
             @RequestParam(required = false) Order order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @PathVariable String uid,
             HttpServletRequest request)
             throws ExecutionException, InterruptedException, FirebaseAuthException, AuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -479,20 +633,31 @@ public class IssueController {
         // Pagination and sorting
         if (orderBy == null) orderBy = OrderBy.CREATION_DATE;
         if (order == null) order = Order.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(
-                Sort.Direction.fromString(order.toString()), orderBy.getFieldName()));
+        Sort.Order sortOrder = new Sort.Order(Sort.Direction.fromString(order.toString()), orderBy.getFieldName());
+
+        // Keyset pagination
+        if (cursor != null) {
+            Slice<Issue> sliceIssues = issueService.getIssuesByHolderAfter(null, null, uid, statuses, authorUid, categories, from, to,
+                    IssueCursor.decode(cursor), sortOrder, size);
+            return ResponseEntity.ok(createCursorResponse(sliceIssues, orderBy, principal));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder));
+
+        // Count-free pagination
+        if (!withTotal) {
+            Slice<Issue> sliceIssues = issueService.getIssuesByHolderSlice(
+                    null, null, uid, statuses, authorUid, categories, from, to, pageable);
+            return ResponseEntity.ok(createSliceResponse(sliceIssues, principal));
+        }
 
         Page<Issue> pageIssues = issueService.getIssuesByHolder(
                 null, null, uid, statuses, authorUid, categories, from, to, pageable);
         List<Issue> issues = pageIssues.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
-        response.put("issues", issues.stream()
-                .map(issue -> modelMapper.map(issue, IssueResponseDto.class))
-                .collect(Collectors.toList()));
+        response.put("issues", toIssueResponseDtos(issues, principal));
         response.put("currentPage", pageIssues.getNumber());
         response.put("totalItems", pageIssues.getTotalElements());
         response.put("totalPages", pageIssues.getTotalPages());
@@ -555,13 +720,13 @@ public class IssueController {
             HttpServletRequest request)
             throws ExecutionException, InterruptedException, FirebaseAuthException, AuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -586,13 +751,13 @@ public class IssueController {
             HttpServletRequest request)
             throws ExecutionException, InterruptedException, FirebaseAuthException, AuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -617,6 +782,24 @@ public class IssueController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Gets which of the issues the resident likes, so that a list is resolved in one request.
+     *
+     * @param ids     the issue ids
+     * @param request the request
+     * @return the liked issues
+     */
+    @GetMapping(path = "/like/status", produces = "application/json")
+    @FirebaseAuthorization(roles = {"RESIDENT"}, statuses = {"ACTIVE"})
+    public ResponseEntity<LikedIssuesResponseDto> getLikedIssues(@RequestParam List<Long> ids,
+                                                                 HttpServletRequest request) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        LikedIssuesResponseDto response = new LikedIssuesResponseDto();
+        response.setIssueIds(issueService.getLikedIssueIds(ids, principal.uid()));
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Gets like status.
      *
@@ -629,8 +812,8 @@ public class IssueController {
     @FirebaseAuthorization(roles = {"RESIDENT"}, statuses = {"ACTIVE"})
     public ResponseEntity<IssueLikeStatusResponseDto> getLikeStatus(@PathVariable("id") Long id,
                                                                     HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        Boolean likeStatus = issueService.getLikeStatus(id, token.getUid());
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        Boolean likeStatus = issueService.getLikeStatus(id, principal.uid());
         IssueLikeStatusResponseDto response = new IssueLikeStatusResponseDto();
         response.setLikeStatus(likeStatus);
 
@@ -648,8 +831,8 @@ public class IssueController {
     @FirebaseAuthorization(roles = {"RESIDENT"}, statuses = {"ACTIVE"})
     public void likeIssue(@PathVariable("id") Long id,
                           HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        issueService.likeIssue(id, token.getUid());
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        issueService.likeIssue(id, principal.uid());
     }
 
     /**
@@ -663,7 +846,94 @@ public class IssueController {
     @FirebaseAuthorization(roles = {"RESIDENT"}, statuses = {"ACTIVE"})
     public void deleteLikeIssue(@PathVariable("id") Long issueId,
                                 HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        issueService.deleteLikeIssue(issueId, token.getUid());
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        issueService.deleteLikeIssue(issueId, principal.uid());
+    }
+
+    private <T> ResponseEntity<List<T>> createBoundedResponse(Slice<T> slice) {
+        return ResponseEntity.ok()
+                .header(TRUNCATED_HEADER, String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
+    }
+
+    /**
+     * Writes the raw coordinate columns straight from the rows into the compact binary frame.
+     */
+    private ResponseEntity<byte[]> createCompactCoordinatesResponse(GetIssuesInSquareRequestDto requestDto) {
+        CompactCoordinatesWriter writer = new CompactCoordinatesWriter();
+        boolean truncated = issueService.streamRawCoordinatesInSquare(requestDto,
+                coordinates -> writer.write(coordinates.longitude(), coordinates.latitude()));
+
+        return ResponseEntity.ok()
+                .header(TRUNCATED_HEADER, String.valueOf(truncated))
+                .contentType(COMPACT_COORDINATES)
+                .body(writer.toByteArray(truncated));
+    }
+
+    /**
+     * Writes the rows as elements of the "issues" array while the query produces them,
+     * followed by the "truncated" flag, so that only one fetch of rows is held in memory.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> createStreamingResponse(Function<Consumer<T>, Boolean> query) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("issues");
+                boolean truncated = query.apply(row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeBooleanField("truncated", truncated);
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Maps the issues of a page, resolving likedByMe of a resident from the cached likes.
+     */
+    private List<IssueResponseDto> toIssueResponseDtos(List<Issue> issues, FirebasePrincipal principal) {
+        List<IssueResponseDto> response = issues.stream()
+                .map(IssueMapper::toIssueResponseDto)
+                .collect(Collectors.toList());
+
+        if (isResident(principal)) {
+            LongPredicate liked = issueService.getLikedIssues(principal.uid());
+            response.forEach(issue -> issue.setLikedByMe(liked.test(issue.getId())));
+        }
+
+        return response;
+    }
+
+    private boolean isResident(FirebasePrincipal principal) {
+        return principal != null && principal.role() == UserRole.RESIDENT;
+    }
+
+    private Map<String, Object> createSliceResponse(Slice<Issue> sliceIssues, FirebasePrincipal principal) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("issues", toIssueResponseDtos(sliceIssues.getContent(), principal));
+        response.put("currentPage", sliceIssues.getNumber());
+        response.put("hasNext", sliceIssues.hasNext());
+
+        return response;
+    }
+
+    private Map<String, Object> createCursorResponse(Slice<Issue> sliceIssues, OrderBy orderBy, FirebasePrincipal principal) {
+        List<Issue> issues = sliceIssues.getContent();
+        Map<String, Object> response = new HashMap<>();
+        response.put("issues", toIssueResponseDtos(issues, principal));
+        response.put("nextCursor", sliceIssues.hasNext()
+                ? IssueCursor.of(issues.get(issues.size() - 1), orderBy.getFieldName()).encode()
+                : null);
+
+        return response;
     }
 }
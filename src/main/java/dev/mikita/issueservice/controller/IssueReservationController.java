@@ -1,20 +1,17 @@
 package dev.mikita.issueservice.controller;
 
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
 import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
 import dev.mikita.issueservice.dto.response.common.CountResponseDto;
-import dev.mikita.issueservice.dto.response.common.IssueReservationResponseDto;
-import dev.mikita.issueservice.dto.response.employee.IssueReservationEmployeeResponseDto;
-import dev.mikita.issueservice.dto.response.service.IssueReservationServiceResponseDto;
 import dev.mikita.issueservice.entity.*;
+import dev.mikita.issueservice.mapper.IssueReservationMapper;
 import dev.mikita.issueservice.service.DepartmentService;
 import dev.mikita.issueservice.service.EmployeeService;
 import dev.mikita.issueservice.service.IssueReservationService;
 import jakarta.security.auth.message.AuthException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Getter;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -68,22 +66,22 @@ public class IssueReservationController {
     public ResponseEntity<?> getIssueReservation(
             @PathVariable Long id,
             HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
         IssueReservation issueReservation = issueReservationService.getIssueReservation(id);
 
-        Class<?> responseClass = switch (UserRole.valueOf((String) token.getClaims().get("role"))) {
-            case SERVICE -> IssueReservationServiceResponseDto.class;
+        Function<IssueReservation, ?> mapper = switch (principal.role()) {
+            case SERVICE -> IssueReservationMapper::toServiceResponseDto;
             case EMPLOYEE -> {
-                if (issueReservation.getEmployeeUid().equals(token.getUid())) {
-                    yield IssueReservationEmployeeResponseDto.class;
+                if (issueReservation.getEmployeeUid().equals(principal.uid())) {
+                    yield IssueReservationMapper::toEmployeeResponseDto;
                 } else {
-                    yield IssueReservationResponseDto.class;
+                    yield IssueReservationMapper::toResponseDto;
                 }
             }
-            default -> IssueReservationResponseDto.class;
+            default -> IssueReservationMapper::toResponseDto;
         };
 
-        return ResponseEntity.ok(new ModelMapper().map(issueReservation, responseClass));
+        return ResponseEntity.ok(mapper.apply(issueReservation));
     }
 
     @GetMapping(produces = "application/json")
@@ -109,11 +107,9 @@ public class IssueReservationController {
         List<IssueReservation> reservations = pageReservations.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", reservations.stream()
-                .map(reservation -> modelMapper.map(reservation, IssueReservationResponseDto.class))
+                .map(IssueReservationMapper::toResponseDto)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageReservations.getNumber());
         response.put("totalItems", pageReservations.getTotalElements());
@@ -137,9 +133,9 @@ public class IssueReservationController {
             @RequestParam(required = false) Order order,
             HttpServletRequest request) throws AuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString()) && !token.getUid().equals(uid)) {
+        if (principal.role() == UserRole.SERVICE && !principal.uid().equals(uid)) {
             throw new AuthException("You are not authorized to access this resource");
         }
 
@@ -154,14 +150,12 @@ public class IssueReservationController {
         List<IssueReservation> reservations = pageReservations.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
-        Class<?> responseClass = token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString()) ?
-                IssueReservationServiceResponseDto.class : IssueReservationResponseDto.class;
+        Function<IssueReservation, ?> mapper = principal.role() == UserRole.SERVICE ?
+                IssueReservationMapper::toServiceResponseDto : IssueReservationMapper::toResponseDto;
 
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", reservations.stream()
-                .map(reservation -> modelMapper.map(reservation, responseClass))
+                .map(mapper)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageReservations.getNumber());
         response.put("totalItems", pageReservations.getTotalElements());
@@ -186,13 +180,13 @@ public class IssueReservationController {
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
 
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -208,17 +202,15 @@ public class IssueReservationController {
         List<IssueReservation> reservations = pageReservations.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
-        Class<?> responseClass = switch (UserRole.valueOf(token.getClaims().get("role").toString())) {
-            case SERVICE -> IssueReservationServiceResponseDto.class;
-            case EMPLOYEE -> IssueReservationEmployeeResponseDto.class;
-            default -> IssueReservationResponseDto.class;
+        Function<IssueReservation, ?> mapper = switch (principal.role()) {
+            case SERVICE -> IssueReservationMapper::toServiceResponseDto;
+            case EMPLOYEE -> IssueReservationMapper::toEmployeeResponseDto;
+            default -> IssueReservationMapper::toResponseDto;
         };
 
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", reservations.stream()
-                .map(reservation -> modelMapper.map(reservation, responseClass))
+                .map(mapper)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageReservations.getNumber());
         response.put("totalItems", pageReservations.getTotalElements());
@@ -243,13 +235,13 @@ public class IssueReservationController {
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
 
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -265,17 +257,15 @@ public class IssueReservationController {
         List<IssueReservation> reservations = pageReservations.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
-        Class<?> responseClass = switch (UserRole.valueOf(token.getClaims().get("role").toString())) {
-            case SERVICE -> IssueReservationServiceResponseDto.class;
-            case EMPLOYEE -> IssueReservationEmployeeResponseDto.class;
-            default -> IssueReservationResponseDto.class;
+        Function<IssueReservation, ?> mapper = switch (principal.role()) {
+            case SERVICE -> IssueReservationMapper::toServiceResponseDto;
+            case EMPLOYEE -> IssueReservationMapper::toEmployeeResponseDto;
+            default -> IssueReservationMapper::toResponseDto;
         };
 
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", reservations.stream()
-                .map(reservation -> modelMapper.map(reservation, responseClass))
+                .map(mapper)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageReservations.getNumber());
         response.put("totalItems", pageReservations.getTotalElements());
@@ -322,13 +312,13 @@ public class IssueReservationController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -349,13 +339,13 @@ public class IssueReservationController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -1,22 +1,19 @@
 package dev.mikita.issueservice.controller;
 
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
 import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
 import dev.mikita.issueservice.dto.response.common.AvgTimeResponseDto;
 import dev.mikita.issueservice.dto.response.common.CountResponseDto;
-import dev.mikita.issueservice.dto.response.common.IssueSolutionResponseDto;
-import dev.mikita.issueservice.dto.response.employee.IssueSolutionEmployeeResponseDto;
-import dev.mikita.issueservice.dto.response.service.IssueSolutionServiceResponseDto;
 import dev.mikita.issueservice.entity.IssueSolution;
 import dev.mikita.issueservice.service.DepartmentService;
 import dev.mikita.issueservice.service.EmployeeService;
 import dev.mikita.issueservice.service.IssueSolutionService;
 import dev.mikita.issueservice.entity.UserRole;
+import dev.mikita.issueservice.mapper.IssueSolutionMapper;
 import jakarta.security.auth.message.AuthException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Getter;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -31,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -70,22 +68,22 @@ public class IssueSolutionController {
     public ResponseEntity<?> getIssueSolution(
             @PathVariable Long id,
             HttpServletRequest request) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
         IssueSolution issueSolution = issueSolutionService.getIssueSolution(id);
 
-        Class<?> responseClass = switch ((UserRole.valueOf((String) token.getClaims().get("role")))) {
-            case SERVICE -> IssueSolutionServiceResponseDto.class;
+        Function<IssueSolution, ?> mapper = switch (principal.role()) {
+            case SERVICE -> IssueSolutionMapper::toServiceResponseDto;
             case EMPLOYEE -> {
-                if (issueSolution.getEmployeeUid().equals(token.getUid())) {
-                    yield IssueSolutionEmployeeResponseDto.class;
+                if (issueSolution.getEmployeeUid().equals(principal.uid())) {
+                    yield IssueSolutionMapper::toEmployeeResponseDto;
                 } else {
-                    yield IssueSolutionResponseDto.class;
+                    yield IssueSolutionMapper::toResponseDto;
                 }
             }
-            default -> IssueSolutionResponseDto.class;
+            default -> IssueSolutionMapper::toResponseDto;
         };
 
-        return ResponseEntity.ok(new ModelMapper().map(issueSolution, responseClass));
+        return ResponseEntity.ok(mapper.apply(issueSolution));
     }
 
     @GetMapping(produces = "application/json")
@@ -111,11 +109,9 @@ public class IssueSolutionController {
         List<IssueSolution> solutions = pageSolutions.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", solutions.stream()
-                .map(solution -> modelMapper.map(solution, IssueSolutionResponseDto.class))
+                .map(IssueSolutionMapper::toResponseDto)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageSolutions.getNumber());
         response.put("totalItems", pageSolutions.getTotalElements());
@@ -139,9 +135,9 @@ public class IssueSolutionController {
             @RequestParam(required = false) Order order,
             HttpServletRequest request) throws AuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
 
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString()) && !token.getUid().equals(uid)) {
+        if (principal.role() == UserRole.SERVICE && !principal.uid().equals(uid)) {
             throw new AuthException("You are not authorized to access this resource");
         }
 
@@ -156,14 +152,12 @@ public class IssueSolutionController {
         List<IssueSolution> solutions = pageSolutions.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
-        Class<?> responseClass = token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString()) ?
-                IssueSolutionServiceResponseDto.class : IssueSolutionResponseDto.class;
+        Function<IssueSolution, ?> mapper = principal.role() == UserRole.SERVICE ?
+                IssueSolutionMapper::toServiceResponseDto : IssueSolutionMapper::toResponseDto;
 
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", solutions.stream()
-                .map(solution -> modelMapper.map(solution, responseClass))
+                .map(mapper)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageSolutions.getNumber());
         response.put("totalItems", pageSolutions.getTotalElements());
@@ -187,13 +181,13 @@ public class IssueSolutionController {
             @RequestParam(required = false) Order order,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -209,17 +203,15 @@ public class IssueSolutionController {
         List<IssueSolution> solutions = pageSolutions.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
-        Class<?> responseClass = switch (UserRole.valueOf(token.getClaims().get("role").toString())) {
-            case SERVICE -> IssueSolutionServiceResponseDto.class;
-            case EMPLOYEE -> IssueSolutionEmployeeResponseDto.class;
-            default -> IssueSolutionResponseDto.class;
+        Function<IssueSolution, ?> mapper = switch (principal.role()) {
+            case SERVICE -> IssueSolutionMapper::toServiceResponseDto;
+            case EMPLOYEE -> IssueSolutionMapper::toEmployeeResponseDto;
+            default -> IssueSolutionMapper::toResponseDto;
         };
 
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", solutions.stream()
-                .map(solution -> modelMapper.map(solution, responseClass))
+                .map(mapper)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageSolutions.getNumber());
         response.put("totalItems", pageSolutions.getTotalElements());
@@ -244,13 +236,13 @@ public class IssueSolutionController {
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
 
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -266,17 +258,15 @@ public class IssueSolutionController {
         List<IssueSolution> solutions = pageSolutions.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
-        Class<?> responseClass = switch (UserRole.valueOf(token.getClaims().get("role").toString())) {
-            case SERVICE -> IssueSolutionServiceResponseDto.class;
-            case EMPLOYEE -> IssueSolutionEmployeeResponseDto.class;
-            default -> IssueSolutionResponseDto.class;
+        Function<IssueSolution, ?> mapper = switch (principal.role()) {
+            case SERVICE -> IssueSolutionMapper::toServiceResponseDto;
+            case EMPLOYEE -> IssueSolutionMapper::toEmployeeResponseDto;
+            default -> IssueSolutionMapper::toResponseDto;
         };
 
         Map<String, Object> response = new HashMap<>();
         response.put("reservations", solutions.stream()
-                .map(solution -> modelMapper.map(solution, responseClass))
+                .map(mapper)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageSolutions.getNumber());
         response.put("totalItems", pageSolutions.getTotalElements());
@@ -323,13 +313,13 @@ public class IssueSolutionController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -350,13 +340,13 @@ public class IssueSolutionController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -406,13 +396,13 @@ public class IssueSolutionController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!departmentService.isServiceOwnerOfDepartment(token.getUid(), uid)) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!departmentService.isServiceOwnerOfDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!employeeService.isEmployeeInDepartment(token.getUid(), uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!employeeService.isEmployeeInDepartment(principal.uid(), uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -434,13 +424,13 @@ public class IssueSolutionController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             HttpServletRequest request) throws AuthException, ExecutionException, InterruptedException, FirebaseAuthException {
         // Authorization
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        if (token.getClaims().get("role").toString().equals(UserRole.SERVICE.toString())) {
-            if (!employeeService.isEmployeeInService(uid, token.getUid())) {
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        if (principal.role() == UserRole.SERVICE) {
+            if (!employeeService.isEmployeeInService(uid, principal.uid())) {
                 throw new AuthException("You are not authorized to access this resource");
             }
-        } else if (token.getClaims().get("role").toString().equals(UserRole.EMPLOYEE.toString())) {
-            if (!token.getUid().equals(uid)) {
+        } else if (principal.role() == UserRole.EMPLOYEE) {
+            if (!principal.uid().equals(uid)) {
                 throw new AuthException("You are not authorized to access this resource");
             }
         }
@@ -4,9 +4,9 @@ import dev.mikita.issueservice.annotation.FirebaseAuthorization;
 import dev.mikita.issueservice.dto.request.CreateCategoryRequestDto;
 import dev.mikita.issueservice.dto.request.UpdateCategoryRequestDto;
 import dev.mikita.issueservice.entity.Category;
+import dev.mikita.issueservice.mapper.CategoryMapper;
 import dev.mikita.issueservice.service.CategoryService;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -30,8 +30,7 @@ public class AdminCategoryController {
     @PostMapping
     @FirebaseAuthorization(roles = {"MODERATOR", "ADMIN"})
     public void createCategory(@Valid @RequestBody CreateCategoryRequestDto createCategoryRequestDto) {
-        ModelMapper modelMapper = new ModelMapper();
-        Category category = modelMapper.map(createCategoryRequestDto, Category.class);
+        Category category = CategoryMapper.toCategory(createCategoryRequestDto);
         categoryService.createCategory(category);
     }
 
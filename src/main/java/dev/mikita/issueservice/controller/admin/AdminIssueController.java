@@ -1,20 +1,22 @@
 package dev.mikita.issueservice.controller.admin;
 
-import com.google.firebase.auth.FirebaseToken;
 import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
 import dev.mikita.issueservice.dto.request.DeclineIssueRequestDto;
 import dev.mikita.issueservice.dto.response.common.IssueResponseDto;
 import dev.mikita.issueservice.entity.Issue;
 import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.mapper.IssueMapper;
 import dev.mikita.issueservice.service.IssueService;
+import dev.mikita.issueservice.util.IssueCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.Getter;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -37,7 +39,7 @@ public class AdminIssueController {
         STATUS("status"),
         TITLE("title"),
         CATEGORY("category"),
-        LIKES("likes");
+        LIKES("likeCount");
 
         private final String fieldName;
 
@@ -69,7 +71,9 @@ public class AdminIssueController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(name = "order_by", required = false) OrderBy orderBy,
-            @RequestParam(required = false) Order order
+            @RequestParam(required = false) Order order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal
     ) {
         // Default values
         if (statuses == null) statuses = List.of(IssueStatus.MODERATION);
@@ -77,17 +81,30 @@ public class AdminIssueController {
         // Pagination and sorting
         if (orderBy == null) orderBy = OrderBy.CREATION_DATE;
         if (order == null) order = Order.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(
-                Sort.Direction.fromString(order.toString()), orderBy.getFieldName()));
+        Sort.Order sortOrder = new Sort.Order(Sort.Direction.fromString(order.toString()), orderBy.getFieldName());
+
+        // Keyset pagination
+        if (cursor != null) {
+            Slice<Issue> sliceIssues = issueService.getIssuesAfter(statuses, authorUid, categories, from, to,
+                    IssueCursor.decode(cursor), sortOrder, size);
+            return ResponseEntity.ok(createCursorResponse(sliceIssues, orderBy));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder));
+
+        // Count-free pagination
+        if (!withTotal) {
+            Slice<Issue> sliceIssues = issueService.getIssuesSlice(statuses, authorUid, categories, from, to, pageable);
+            return ResponseEntity.ok(createSliceResponse(sliceIssues));
+        }
+
         Page<Issue> pageIssues = issueService.getIssues(statuses, authorUid, categories, from, to, pageable);
         List<Issue> issues = pageIssues.getContent();
 
         // Collect result
-        ModelMapper modelMapper = new ModelMapper();
-
         Map<String, Object> response = new HashMap<>();
         response.put("issues", issues.stream()
-                .map(issue -> modelMapper.map(issue, IssueResponseDto.class))
+                .map(IssueMapper::toIssueResponseDto)
                 .collect(Collectors.toList()));
         response.put("currentPage", pageIssues.getNumber());
         response.put("totalItems", pageIssues.getTotalElements());
@@ -99,8 +116,7 @@ public class AdminIssueController {
     @GetMapping(path = "/{id}", produces = "application/json")
     @FirebaseAuthorization(roles = {"MODERATOR", "ADMIN"})
     public ResponseEntity<IssueResponseDto> getIssue(@PathVariable Long id) {
-        return ResponseEntity.ok(new ModelMapper()
-                .map(issueService.findIssueById(id), IssueResponseDto.class));
+        return ResponseEntity.ok(IssueMapper.toIssueResponseDto(issueService.findIssueById(id)));
     }
 
     @PutMapping(path = "/{id}/approve")
@@ -113,7 +129,31 @@ public class AdminIssueController {
     @FirebaseAuthorization(roles = {"MODERATOR", "ADMIN"})
     public void declineIssue(@PathVariable("id") Long id, HttpServletRequest request,
                              @Valid @RequestBody DeclineIssueRequestDto declineIssueRequest) {
-        FirebaseToken token = (FirebaseToken) request.getAttribute("firebaseToken");
-        issueService.declineIssue(id, token.getUid(), declineIssueRequest.getComment());
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        issueService.declineIssue(id, principal.uid(), declineIssueRequest.getComment());
+    }
+
+    private Map<String, Object> createSliceResponse(Slice<Issue> sliceIssues) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("issues", sliceIssues.getContent().stream()
+                .map(IssueMapper::toIssueResponseDto)
+                .collect(Collectors.toList()));
+        response.put("currentPage", sliceIssues.getNumber());
+        response.put("hasNext", sliceIssues.hasNext());
+
+        return response;
+    }
+
+    private Map<String, Object> createCursorResponse(Slice<Issue> sliceIssues, OrderBy orderBy) {
+        List<Issue> issues = sliceIssues.getContent();
+        Map<String, Object> response = new HashMap<>();
+        response.put("issues", issues.stream()
+                .map(IssueMapper::toIssueResponseDto)
+                .collect(Collectors.toList()));
+        response.put("nextCursor", sliceIssues.hasNext()
+                ? IssueCursor.of(issues.get(issues.size() - 1), orderBy.getFieldName()).encode()
+                : null);
+
+        return response;
     }
 }
@@ -2,6 +2,7 @@ package dev.mikita.issueservice.controller.handler;
 
 import com.google.firebase.auth.FirebaseAuthException;
 import dev.mikita.issueservice.exception.NotFoundException;
+import dev.mikita.issueservice.exception.ValidationException;
 import jakarta.security.auth.message.AuthException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -61,6 +62,19 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorInfo(request, e), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Validation exception response entity.
+     *
+     * @param request the request
+     * @param e       the e
+     * @return the response entity
+     */
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ErrorInfo> validationException(HttpServletRequest request, ValidationException e) {
+        logException(e);
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Wrong format exception response entity.
      *
@@ -1,6 +1,8 @@
 package dev.mikita.issueservice.dto.request;
 
 import dev.mikita.issueservice.entity.IssueStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.Data;
 import lombok.NonNull;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -19,8 +21,11 @@ public class GetIssuesInSquareRequestDto {
     private Double maxLongitude;
     private Double maxLatitude;
     private Boolean coordinatesOnly;
+    @Min(value = 0, message = "Zoom must be between 0 and 22.")
+    @Max(value = 22, message = "Zoom must be between 0 and 22.")
+    private Integer zoom;
 
-    @ConstructorProperties({"statuses","categories","from","to","min_longitude","min_latitude","max_longitude","max_latitude","coordinates_only"})
+    @ConstructorProperties({"statuses","categories","from","to","min_longitude","min_latitude","max_longitude","max_latitude","coordinates_only","zoom"})
     public GetIssuesInSquareRequestDto(List<IssueStatus> statuses,
                                        List<Long> categories,
                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
@@ -29,7 +34,8 @@ public class GetIssuesInSquareRequestDto {
                                        @NonNull Double minLatitude,
                                        @NonNull Double maxLongitude,
                                        @NonNull Double maxLatitude,
-                                       Boolean coordinatesOnly) {
+                                       Boolean coordinatesOnly,
+                                       Integer zoom) {
         this.statuses = statuses;
         this.categories = categories;
         this.from = from;
@@ -39,5 +45,6 @@ public class GetIssuesInSquareRequestDto {
         this.maxLongitude = maxLongitude;
         this.maxLatitude = maxLatitude;
         this.coordinatesOnly = coordinatesOnly != null && coordinatesOnly;
+        this.zoom = zoom;
     }
 }
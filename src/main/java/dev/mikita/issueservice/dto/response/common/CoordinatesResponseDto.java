@@ -1,9 +1,13 @@
 package dev.mikita.issueservice.dto.response.common;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.locationtech.jts.geom.Point;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CoordinatesResponseDto {
     Point coordinates;
 }
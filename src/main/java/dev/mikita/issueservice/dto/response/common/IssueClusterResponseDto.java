@@ -0,0 +1,31 @@
+package dev.mikita.issueservice.dto.response.common;
+
+import dev.mikita.issueservice.entity.IssueStatus;
+import lombok.Data;
+import org.locationtech.jts.geom.Point;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The type Issue cluster response dto.
+ */
+@Data
+public class IssueClusterResponseDto {
+    /**
+     * The Centroid of the clustered issues.
+     */
+    Point coordinates;
+    /**
+     * The Count.
+     */
+    long count;
+    /**
+     * The Count per status.
+     */
+    Map<IssueStatus, Long> statuses = new EnumMap<>(IssueStatus.class);
+    /**
+     * The Count per category id.
+     */
+    Map<Long, Long> categories = new HashMap<>();
+}
@@ -47,4 +47,8 @@ public class IssueResponseDto {
      */
     IssueStatus status;
     int likeCount;
+    /**
+     * Whether the requesting resident likes the issue, null for other users.
+     */
+    Boolean likedByMe;
 }
@@ -0,0 +1,19 @@
+package dev.mikita.issueservice.dto.response.common;
+
+import dev.mikita.issueservice.entity.IssueStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Point;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueTrendingResponseDto {
+    Long id;
+    Point coordinates;
+    String title;
+    Long categoryId;
+    IssueStatus status;
+    Double score;
+}
@@ -0,0 +1,9 @@
+package dev.mikita.issueservice.dto.response.common;
+
+import lombok.Data;
+import java.util.Set;
+
+@Data
+public class LikedIssuesResponseDto {
+    Set<Long> issueIds;
+}
@@ -11,8 +11,26 @@ import java.util.Objects;
  * The type Issue.
  */
 @Entity
-@Table(name = "bc_issue")
+@NamedEntityGraph(name = Issue.LIST_GRAPH, attributeNodes = @NamedAttributeNode("category"))
+@NamedEntityGraph(name = Issue.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("category"))
+@Table(name = "bc_issue", indexes = {
+        @Index(name = "idx_issue_creation_date_id", columnList = "creation_date, id"),
+        @Index(name = "idx_issue_like_count_id", columnList = "like_count, id"),
+        @Index(name = "idx_issue_status_creation_date", columnList = "status, creation_date"),
+        @Index(name = "idx_issue_author_uid_creation_date", columnList = "author_uid, creation_date"),
+        @Index(name = "idx_issue_category_id_creation_date", columnList = "category_id, creation_date")
+})
 public class Issue {
+    /**
+     * Fetch plan of issue listings, including the holder views.
+     */
+    public static final String LIST_GRAPH = "Issue.list";
+
+    /**
+     * Fetch plan of a single issue view.
+     */
+    public static final String DETAIL_GRAPH = "Issue.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "id", nullable = false)
@@ -25,6 +43,14 @@ public class Issue {
     @Column(name = "coordinates", nullable = false, columnDefinition = "geography")
     private Point coordinates;
 
+    // Planar copy of the coordinates for index-assisted bounding box queries, computed by the database
+    @Column(name = "location", insertable = false, updatable = false,
+            columnDefinition = "geometry(Point, 4326) GENERATED ALWAYS AS (CAST(coordinates AS geometry)) STORED")
+    private Point location;
+
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
     @Column(name = "photo")
     private String photo;
 
@@ -37,28 +63,21 @@ public class Issue {
     @Column(name = "title", nullable = false, length = 64)
     private String title;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
     @Column(name = "author_uid", nullable = false, length = 128)
     private String authorUid;
 
-    @OneToOne(mappedBy = "issue", cascade = CascadeType.REMOVE, orphanRemoval = true)
-    private ModerationResponse moderationResponse;
-
     @OneToMany(mappedBy = "issue", cascade = CascadeType.REMOVE, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Like> likes = new ArrayList<>();
 
-    @Transient
+    // Maintained by atomic updates in IssueRepository, never written from the entity
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
     private int likeCount;
 
-    @OneToOne(mappedBy = "issue", cascade = CascadeType.REMOVE, orphanRemoval = true)
-    private IssueReservation issueReservation;
-
-    @OneToOne(mappedBy = "issue", cascade = CascadeType.REMOVE, orphanRemoval = true)
-    private IssueSolution issueSolution;
-
     /**
      * Gets status.
      *
@@ -116,6 +135,34 @@ public class Issue {
         this.coordinates = coordinates;
     }
 
+    /**
+     * Gets location.
+     *
+     * @return the location
+     */
+    public Point getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets geohash.
+     *
+     * @return the geohash
+     */
+    public String getGeohash() {
+        return geohash;
+    }
+
+    /**
+     * Sets geohash.
+     *
+     * @param geohash the geohash
+     */
+    public void setGeohash(String geohash) {
+        Objects.requireNonNull(geohash);
+        this.geohash = geohash;
+    }
+
     /**
      * Gets creation date.
      *
@@ -211,8 +258,13 @@ public class Issue {
         this.authorUid = author;
     }
 
+    /**
+     * Gets like count.
+     *
+     * @return the like count
+     */
     public int getLikeCount() {
-        return likes.size();
+        return likeCount;
     }
 
     /**
@@ -8,7 +8,11 @@ import java.util.Objects;
  * The type Issue reservation.
  */
 @Entity
-@Table(name = "bc_issue_reservation")
+@Table(name = "bc_issue_reservation", indexes = {
+        @Index(name = "idx_issue_reservation_service_uid_creation_date", columnList = "service_uid, creation_date"),
+        @Index(name = "idx_issue_reservation_department_uid_creation_date", columnList = "department_uid, creation_date"),
+        @Index(name = "idx_issue_reservation_employee_uid_creation_date", columnList = "employee_uid, creation_date")
+})
 public class IssueReservation {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -18,7 +22,7 @@ public class IssueReservation {
     @Column(name = "creation_date", nullable = false, columnDefinition = "TIMESTAMP")
     private LocalDateTime creationDate = LocalDateTime.now();
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "issue_id", nullable = false, unique = true)
     private Issue issue;
 
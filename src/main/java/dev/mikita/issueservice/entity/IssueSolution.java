@@ -8,7 +8,11 @@ import java.util.Objects;
  * The type Issue solution.
  */
 @Entity
-@Table(name = "bc_issue_solution")
+@Table(name = "bc_issue_solution", indexes = {
+        @Index(name = "idx_issue_solution_service_uid_creation_date", columnList = "service_uid, creation_date"),
+        @Index(name = "idx_issue_solution_department_uid_creation_date", columnList = "department_uid, creation_date"),
+        @Index(name = "idx_issue_solution_employee_uid_creation_date", columnList = "employee_uid, creation_date")
+})
 public class IssueSolution {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -33,7 +37,7 @@ public class IssueSolution {
     @Column(name = "department_uid", nullable = false, length = 128)
     private String departmentUid;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "issue_id", nullable = false, unique = true)
     private Issue issue;
 
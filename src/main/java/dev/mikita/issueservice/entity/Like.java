@@ -1,6 +1,7 @@
 package dev.mikita.issueservice.entity;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -17,13 +18,16 @@ public class Like {
     @Column(name = "id", nullable = false)
     private Long id;
 
-    @ManyToOne()
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "issue_id")
     private Issue issue;
 
     @Column(name = "resident_uid", nullable = false, length = 128)
     private String residentUid;
 
+    @Column(name = "creation_date", columnDefinition = "TIMESTAMP")
+    private LocalDateTime creationDate = LocalDateTime.now();
+
     /**
      * Gets id.
      *
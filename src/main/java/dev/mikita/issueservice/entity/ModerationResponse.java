@@ -15,7 +15,7 @@ public class ModerationResponse {
     @Column(name = "moderator_uid", nullable = false, length = 128)
     private String moderatorUid;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "issue_id", nullable = false, unique = true)
     private Issue issue;
 
@@ -0,0 +1,57 @@
+package dev.mikita.issueservice.event;
+
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.entity.IssueStatus;
+import org.locationtech.jts.geom.Point;
+import java.time.LocalDateTime;
+
+/**
+ * Published when an issue is created or its status changes.
+ * Holds a snapshot of the issue taken when the change was made.
+ */
+public class IssueChangedEvent {
+    private final Long issueId;
+    private final Point coordinates;
+    private final String title;
+    private final Long categoryId;
+    private final IssueStatus status;
+    private final LocalDateTime creationDate;
+
+    /**
+     * Instantiates a new Issue changed event.
+     *
+     * @param issue the changed issue
+     */
+    public IssueChangedEvent(Issue issue) {
+        this.issueId = issue.getId();
+        this.coordinates = issue.getCoordinates();
+        this.title = issue.getTitle();
+        this.categoryId = issue.getCategory().getId();
+        this.status = issue.getStatus();
+        this.creationDate = issue.getCreationDate();
+    }
+
+    public Long getIssueId() {
+        return issueId;
+    }
+
+    public Point getCoordinates() {
+        return coordinates;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public IssueStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+}
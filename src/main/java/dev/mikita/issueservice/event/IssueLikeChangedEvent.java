@@ -0,0 +1,44 @@
+package dev.mikita.issueservice.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a resident likes or unlikes an issue.
+ */
+public class IssueLikeChangedEvent {
+    private final Long issueId;
+    private final String residentUid;
+    private final boolean liked;
+    private final Instant likedAt;
+
+    /**
+     * Instantiates a new Issue like changed event.
+     *
+     * @param issueId     the issue id
+     * @param residentUid the resident id
+     * @param liked       whether the issue is liked now
+     * @param likedAt     when the added or removed like was made, null when it is not known
+     */
+    public IssueLikeChangedEvent(Long issueId, String residentUid, boolean liked, Instant likedAt) {
+        this.issueId = issueId;
+        this.residentUid = residentUid;
+        this.liked = liked;
+        this.likedAt = likedAt;
+    }
+
+    public Long getIssueId() {
+        return issueId;
+    }
+
+    public String getResidentUid() {
+        return residentUid;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public Instant getLikedAt() {
+        return likedAt;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.mikita.issueservice.index;
+
+import dev.mikita.issueservice.entity.IssueStatus;
+import org.locationtech.jts.geom.Point;
+import java.time.LocalDateTime;
+
+/**
+ * Issue as held by the spatial index, only the values the map endpoints filter on and return.
+ *
+ * @param id           the id
+ * @param coordinates  the coordinates
+ * @param title        the title
+ * @param categoryId   the category id
+ * @param status       the status
+ * @param creationDate the creation date
+ */
+public record IndexedIssue(Long id, Point coordinates, String title, Long categoryId,
+                           IssueStatus status, LocalDateTime creationDate) {
+}
@@ -0,0 +1,274 @@
+package dev.mikita.issueservice.index;
+
+import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.repository.IssueRepository;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import dev.mikita.issueservice.repository.specification.IssueSpecifications;
+import dev.mikita.issueservice.util.SphericalDistance;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory quadtree of the issues shown on the map, so viewport and radius lookups
+ * need no database round trip. Loaded once the application is ready and kept up to date
+ * from committed issue changes. Changes committed through other instances are picked up
+ * by reloading the whole index periodically, the old index keeps serving until the new one is swapped in.
+ * Until loaded, and for filters it cannot answer, callers fall back to SQL.
+ */
+@Component
+public class IssueSpatialIndex {
+    private static final Logger log = LoggerFactory.getLogger(IssueSpatialIndex.class);
+
+    /**
+     * Statuses of the indexed issues.
+     */
+    public static final List<IssueStatus> INDEXED_STATUSES =
+            List.of(IssueStatus.PUBLISHED, IssueStatus.SOLVING, IssueStatus.SOLVED);
+
+    // Widens the searched envelope to cover the difference between the sphere and the spheroid
+    private static final double ENVELOPE_MARGIN = 1.01;
+
+    private final IssueRepository issueRepository;
+    private final boolean enabled;
+    private final int fetchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Quadtree tree = new Quadtree();
+    private Map<Long, IndexedIssue> issues = new HashMap<>();
+    // Changes committed while the index is being loaded, replayed on top of the loaded state
+    private List<IssueChangedEvent> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    /**
+     * Instantiates a new Issue spatial index.
+     *
+     * @param issueRepository the issue repository
+     * @param enabled         whether the index is used
+     * @param fetchSize       the number of rows fetched per round trip while loading
+     */
+    @Autowired
+    public IssueSpatialIndex(IssueRepository issueRepository,
+                             @Value("${issue.spatial-index.enabled:true}") boolean enabled,
+                             @Value("${issue.map.fetch-size:500}") int fetchSize) {
+        this.issueRepository = issueRepository;
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Loads the indexed issues from the database, once the application is ready and then periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${issue.spatial-index.reload-interval:PT5M}",
+            fixedDelayString = "${issue.spatial-index.reload-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+
+        // Changes committed from now on are also replayed on top of the reloaded state
+        lock.writeLock().lock();
+        try {
+            if (pending == null) {
+                pending = new ArrayList<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Quadtree loadedTree = new Quadtree();
+        Map<Long, IndexedIssue> loadedIssues = new HashMap<>();
+
+        try (Stream<IndexedIssue> rows = issueRepository.streamIndexed(
+                IssueSpecifications.hasStatusIn(INDEXED_STATUSES), fetchSize)) {
+            rows.forEach(issue -> {
+                loadedIssues.put(issue.id(), issue);
+                loadedTree.insert(envelopeOf(issue), issue);
+            });
+        } catch (RuntimeException e) {
+            log.warn(ready ? "Spatial index could not be reloaded, the loaded index stays in use"
+                    : "Spatial index could not be loaded, map queries are served from the database", e);
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            tree = loadedTree;
+            issues = loadedIssues;
+            pending.forEach(this::apply);
+            pending = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Spatial index loaded with {} issues", loadedIssues.size());
+    }
+
+    /**
+     * Applies a committed issue change.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            }
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether the filter can be answered from the index. Only the status, category
+     * and creation date filters are supported, and the statuses must be indexed ones.
+     *
+     * @param filter the filter
+     * @return whether the index can answer the filter
+     */
+    public boolean covers(IssueFilter filter) {
+        return ready
+                && filter.getStatuses() != null
+                && INDEXED_STATUSES.containsAll(filter.getStatuses())
+                && filter.getAuthorUid() == null
+                && filter.getServiceUid() == null
+                && filter.getDepartmentUid() == null
+                && filter.getEmployeeUid() == null;
+    }
+
+    /**
+     * Finds issues in the square, inclusive of its edges.
+     *
+     * @param filter       the filter, must be covered by the index
+     * @param minLongitude the min longitude
+     * @param minLatitude  the min latitude
+     * @param maxLongitude the max longitude
+     * @param maxLatitude  the max latitude
+     * @param limit        the maximum number of issues
+     * @param consumer     the consumer
+     * @return whether the result was truncated
+     */
+    public boolean findInSquare(IssueFilter filter, double minLongitude, double minLatitude,
+                                double maxLongitude, double maxLatitude, int limit, Consumer<IndexedIssue> consumer) {
+        Envelope square = new Envelope(minLongitude, maxLongitude, minLatitude, maxLatitude);
+        return find(square, filter, issue -> square.covers(issue.coordinates().getCoordinate()), limit, consumer);
+    }
+
+    /**
+     * Finds issues within the distance of the point. Distances are measured on a sphere.
+     *
+     * @param filter    the filter, must be covered by the index
+     * @param latitude  the latitude
+     * @param longitude the longitude
+     * @param distance  the distance in meters
+     * @param limit     the maximum number of issues
+     * @param consumer  the consumer
+     * @return whether the result was truncated
+     */
+    public boolean findInRadius(IssueFilter filter, double latitude, double longitude, double distance,
+                                int limit, Consumer<IndexedIssue> consumer) {
+        double latitudeDelta = Math.toDegrees(distance * ENVELOPE_MARGIN / SphericalDistance.EARTH_RADIUS);
+        double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(latitude));
+
+        // Circles over a pole or the antimeridian do not map to one envelope
+        Envelope envelope = new Envelope(longitude - longitudeDelta, longitude + longitudeDelta,
+                latitude - latitudeDelta, latitude + latitudeDelta);
+        if (!Double.isFinite(longitudeDelta) || envelope.getMinY() < -90 || envelope.getMaxY() > 90
+                || envelope.getMinX() < -180 || envelope.getMaxX() > 180) {
+            envelope = new Envelope(-180, 180, -90, 90);
+        }
+
+        Coordinate center = new Coordinate(longitude, latitude);
+        return find(envelope, filter,
+                issue -> SphericalDistance.between(center, issue.coordinates().getCoordinate()) <= distance,
+                limit, consumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean find(Envelope envelope, IssueFilter filter, Predicate<IndexedIssue> area,
+                         int limit, Consumer<IndexedIssue> consumer) {
+        List<IndexedIssue> found = new ArrayList<>();
+
+        // Matches are copied out, so the consumer never runs under the lock
+        lock.readLock().lock();
+        try {
+            for (IndexedIssue issue : (List<IndexedIssue>) tree.query(envelope)) {
+                if (area.test(issue) && matches(issue, filter)) {
+                    found.add(issue);
+                    if (found.size() > limit) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        boolean truncated = found.size() > limit;
+        (truncated ? found.subList(0, limit) : found).forEach(consumer);
+        return truncated;
+    }
+
+    private boolean matches(IndexedIssue issue, IssueFilter filter) {
+        return filter.getStatuses().contains(issue.status())
+                && (filter.getCategories() == null || filter.getCategories().contains(issue.categoryId()))
+                && (filter.getFrom() == null || !issue.creationDate().isBefore(filter.getFrom()))
+                && (filter.getTo() == null || !issue.creationDate().isAfter(filter.getTo()));
+    }
+
+    private void apply(IssueChangedEvent event) {
+        IndexedIssue previous = issues.remove(event.getIssueId());
+        if (previous != null) {
+            tree.remove(envelopeOf(previous), previous);
+        }
+
+        if (INDEXED_STATUSES.contains(event.getStatus())) {
+            IndexedIssue issue = new IndexedIssue(event.getIssueId(), event.getCoordinates(), event.getTitle(),
+                    event.getCategoryId(), event.getStatus(), event.getCreationDate());
+            issues.put(issue.id(), issue);
+            tree.insert(envelopeOf(issue), issue);
+        }
+    }
+
+    private static Envelope envelopeOf(IndexedIssue issue) {
+        return issue.coordinates().getEnvelopeInternal();
+    }
+}
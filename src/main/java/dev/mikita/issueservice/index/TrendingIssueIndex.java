@@ -0,0 +1,363 @@
+package dev.mikita.issueservice.index;
+
+import dev.mikita.issueservice.dto.response.common.IssueTrendingResponseDto;
+import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.event.IssueLikeChangedEvent;
+import dev.mikita.issueservice.repository.IssueRepository;
+import dev.mikita.issueservice.repository.LikeRepository;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The published issues with the highest time-decayed like score, kept in memory and updated on every like.
+ * The weight of a like halves every half-life. Scores are stored relative to an epoch, so a like adds
+ * e^((now - epoch) / tau) and older scores never have to be decayed, only rescaled when the weights grow large.
+ * At most the configured capacity of issues is kept, in a min-heap by score indexed by issue id,
+ * so an issue outscoring the lowest one replaces it in O(log K). The scores of unranked issues are kept
+ * in a bounded map of candidates, least recently liked dropped first, so an issue rising while the ranking
+ * is full enters it once its accumulated likes outscore the lowest ranked issue.
+ * The ranking is seeded on startup from the likes made in the last few half-lives.
+ */
+@Component
+public class TrendingIssueIndex {
+    private static final Logger log = LoggerFactory.getLogger(TrendingIssueIndex.class);
+
+    // Rescales the scores before e^exponent runs out of double precision
+    private static final double MAX_EXPONENT = 64;
+    private static final int SEEDED_HALF_LIVES = 8;
+
+    private final IssueRepository issueRepository;
+    private final LikeRepository likeRepository;
+    private final int capacity;
+    private final double tauMillis;
+    private final Clock clock;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Double> candidates;
+    private final Entry[] heap;
+    private int size;
+    private long epoch;
+
+    private static final class Entry {
+        private IndexedIssue issue;
+        private double score;
+        private int position;
+
+        private Entry(IndexedIssue issue, double score) {
+            this.issue = issue;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Instantiates a new Trending issue index.
+     *
+     * @param issueRepository the issue repository
+     * @param likeRepository  the like repository
+     * @param capacity        the maximum number of ranked issues
+     * @param candidates      the maximum number of unranked issues whose scores are kept
+     * @param halfLife        the time after which the weight of a like halves
+     */
+    @Autowired
+    public TrendingIssueIndex(IssueRepository issueRepository,
+                              LikeRepository likeRepository,
+                              @Value("${issue.trending.capacity:1000}") int capacity,
+                              @Value("${issue.trending.candidates:10000}") int candidates,
+                              @Value("${issue.trending.half-life:6h}") Duration halfLife) {
+        this(issueRepository, likeRepository, capacity, candidates, halfLife, Clock.systemUTC());
+    }
+
+    /**
+     * Instantiates a new Trending issue index with the given clock.
+     *
+     * @param issueRepository the issue repository
+     * @param likeRepository  the like repository
+     * @param capacity        the maximum number of ranked issues
+     * @param candidates      the maximum number of unranked issues whose scores are kept
+     * @param halfLife        the time after which the weight of a like halves
+     * @param clock           the clock
+     */
+    TrendingIssueIndex(IssueRepository issueRepository, LikeRepository likeRepository, int capacity,
+                       int candidates, Duration halfLife, Clock clock) {
+        this.issueRepository = issueRepository;
+        this.likeRepository = likeRepository;
+        this.capacity = capacity;
+        this.tauMillis = halfLife.toMillis() / Math.log(2);
+        this.clock = clock;
+        this.heap = new Entry[capacity];
+        this.epoch = clock.millis();
+        this.candidates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Double> eldest) {
+                return size() > candidates;
+            }
+        };
+    }
+
+    /**
+     * Seeds the ranking from the recent likes in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        double tau = tauMillis / 1000;
+        List<Object[]> rows;
+        Map<Long, IndexedIssue> issues;
+        try {
+            rows = likeRepository.findRecentScores(tau * Math.log(2) * SEEDED_HALF_LIVES, tau, capacity);
+            issues = describe(rows.stream().map(row -> ((Number) row[0]).longValue()).toList());
+        } catch (RuntimeException e) {
+            log.warn("Trending issues could not be seeded, the ranking starts empty", e);
+            return;
+        }
+
+        synchronized (this) {
+            double scale = weight(clock.millis());
+            for (Object[] row : rows) {
+                IndexedIssue issue = issues.get(((Number) row[0]).longValue());
+                if (issue != null) {
+                    add(issue, ((Number) row[1]).doubleValue() * scale);
+                }
+            }
+        }
+
+        log.info("Trending issues seeded with {} issues", rows.size());
+    }
+
+    /**
+     * Adds or removes the weight of a committed like. A removed like takes away the weight
+     * it was given when it was made, likes of unknown date are treated as fully decayed.
+     * An unranked issue is looked up only when its candidate score outscores the lowest ranked issue.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(IssueLikeChangedEvent event) {
+        long now = clock.millis();
+        synchronized (this) {
+            double change = weight(now);
+            if (!event.isLiked()) {
+                change = event.getLikedAt() == null ? 0
+                        : -Math.exp((Math.min(event.getLikedAt().toEpochMilli(), now) - epoch) / tauMillis);
+            }
+
+            Entry entry = entries.get(event.getIssueId());
+            if (entry != null) {
+                entry.score = Math.max(entry.score + change, 0);
+                siftDown(siftUp(entry.position));
+                return;
+            }
+
+            double score = candidates.getOrDefault(event.getIssueId(), 0.0) + change;
+            if (score <= 0) {
+                candidates.remove(event.getIssueId());
+                return;
+            }
+            candidates.put(event.getIssueId(), score);
+            if (!event.isLiked() || (size == capacity && score <= heap[0].score)) {
+                return;
+            }
+        }
+
+        // The issue is read outside of the lock, changes racing with the read stay in its candidate score
+        IndexedIssue issue = describe(List.of(event.getIssueId())).get(event.getIssueId());
+
+        synchronized (this) {
+            Double score = candidates.remove(event.getIssueId());
+            if (issue == null || score == null) {
+                return;
+            }
+
+            Entry entry = entries.get(issue.id());
+            if (entry != null) {
+                entry.score += score;
+                siftDown(siftUp(entry.position));
+            } else {
+                add(issue, score);
+            }
+        }
+    }
+
+    /**
+     * Updates a ranked issue after a committed change, issues that are no longer published are dropped.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIssueChanged(IssueChangedEvent event) {
+        Entry entry = entries.get(event.getIssueId());
+        if (entry == null) {
+            if (event.getStatus() != IssueStatus.PUBLISHED) {
+                candidates.remove(event.getIssueId());
+            }
+            return;
+        }
+
+        if (event.getStatus() != IssueStatus.PUBLISHED) {
+            remove(entry);
+        } else {
+            entry.issue = new IndexedIssue(event.getIssueId(), event.getCoordinates(), event.getTitle(),
+                    event.getCategoryId(), event.getStatus(), event.getCreationDate());
+        }
+    }
+
+    /**
+     * Finds the highest ranked issues.
+     *
+     * @param categories the categories, null for all
+     * @param square     the square the issues must lie in, null for anywhere
+     * @param limit      the maximum number of issues
+     * @return the issues by descending score
+     */
+    public List<IssueTrendingResponseDto> findTop(Collection<Long> categories, Envelope square, int limit) {
+        Entry[] top = new Entry[limit];
+        double[] scores = new double[limit];
+        int found = 0;
+        double decay;
+
+        synchronized (this) {
+            decay = 1 / weight(clock.millis());
+
+            // Keeps the best matches in descending order, insertion suits the small limits
+            for (int i = 0; i < size; i++) {
+                Entry entry = heap[i];
+                if (entry.score <= 0 || (found == limit && entry.score <= scores[limit - 1])
+                        || (categories != null && !categories.contains(entry.issue.categoryId()))
+                        || (square != null && !square.covers(entry.issue.coordinates().getCoordinate()))) {
+                    continue;
+                }
+
+                int j = Math.min(found, limit - 1);
+                while (j > 0 && scores[j - 1] < entry.score) {
+                    top[j] = top[j - 1];
+                    scores[j] = scores[j - 1];
+                    j--;
+                }
+                top[j] = entry;
+                scores[j] = entry.score;
+                found = Math.min(found + 1, limit);
+            }
+
+            List<IssueTrendingResponseDto> result = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                IndexedIssue issue = top[i].issue;
+                result.add(new IssueTrendingResponseDto(issue.id(), issue.coordinates(), issue.title(),
+                        issue.categoryId(), issue.status(), scores[i] * decay));
+            }
+            return result;
+        }
+    }
+
+    private Map<Long, IndexedIssue> describe(Collection<Long> issueIds) {
+        if (issueIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, IndexedIssue> issues = new HashMap<>();
+        for (IndexedIssue issue : issueRepository.findIndexedByIdIn(issueIds)) {
+            if (issue.status() == IssueStatus.PUBLISHED) {
+                issues.put(issue.id(), issue);
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Gets the weight of a like made now relative to the epoch, moving the epoch when it grows too large.
+     * Must be called under the lock.
+     */
+    private double weight(long now) {
+        double exponent = (now - epoch) / tauMillis;
+        if (exponent > MAX_EXPONENT) {
+            double scale = Math.exp(-exponent);
+            for (int i = 0; i < size; i++) {
+                heap[i].score *= scale;
+            }
+            candidates.replaceAll((issueId, score) -> score * scale);
+            epoch = now;
+            exponent = 0;
+        }
+
+        return Math.exp(exponent);
+    }
+
+    // Adds the issue to the ranking, the lower of it and the lowest ranked issue becomes a candidate
+    private void add(IndexedIssue issue, double score) {
+        if (size == capacity) {
+            if (score <= heap[0].score) {
+                candidates.put(issue.id(), score);
+                return;
+            }
+            candidates.put(heap[0].issue.id(), heap[0].score);
+            remove(heap[0]);
+        }
+
+        Entry entry = new Entry(issue, score);
+        entries.put(issue.id(), entry);
+        heap[size] = entry;
+        entry.position = size++;
+        siftUp(entry.position);
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.issue.id());
+        int position = entry.position;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (position < size) {
+            heap[position] = last;
+            last.position = position;
+            siftDown(siftUp(position));
+        }
+    }
+
+    private int siftUp(int position) {
+        Entry entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heap[parent].score <= entry.score) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(entry, position);
+        return position;
+    }
+
+    private void siftDown(int position) {
+        Entry entry = heap[position];
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap[child + 1].score < heap[child].score) {
+                child++;
+            }
+            if (entry.score <= heap[child].score) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(entry, position);
+    }
+
+    private void move(Entry entry, int position) {
+        heap[position] = entry;
+        entry.position = position;
+    }
+}
@@ -0,0 +1,37 @@
+package dev.mikita.issueservice.mapper;
+
+import dev.mikita.issueservice.dto.request.CreateCategoryRequestDto;
+import dev.mikita.issueservice.dto.response.common.CategoryResponseDto;
+import dev.mikita.issueservice.entity.Category;
+
+/**
+ * Maps categories from request DTOs and to response DTOs.
+ */
+public final class CategoryMapper {
+    private CategoryMapper() {}
+
+    /**
+     * Maps the category to the category response dto.
+     *
+     * @param category the category
+     * @return the category response dto
+     */
+    public static CategoryResponseDto toResponseDto(Category category) {
+        CategoryResponseDto dto = new CategoryResponseDto();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        return dto;
+    }
+
+    /**
+     * Creates a new category from the request.
+     *
+     * @param requestDto the create category request dto
+     * @return the category
+     */
+    public static Category toCategory(CreateCategoryRequestDto requestDto) {
+        Category category = new Category();
+        category.setName(requestDto.getName());
+        return category;
+    }
+}
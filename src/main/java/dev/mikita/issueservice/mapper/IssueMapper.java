@@ -0,0 +1,47 @@
+package dev.mikita.issueservice.mapper;
+
+import dev.mikita.issueservice.dto.response.common.IssueModerationResponseResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueResponseDto;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.entity.ModerationResponse;
+
+/**
+ * Maps issues and their moderation responses to response DTOs.
+ */
+public final class IssueMapper {
+    private IssueMapper() {}
+
+    /**
+     * Maps the issue to the issue response dto.
+     *
+     * @param issue the issue
+     * @return the issue response dto
+     */
+    public static IssueResponseDto toIssueResponseDto(Issue issue) {
+        IssueResponseDto dto = new IssueResponseDto();
+        dto.setId(issue.getId());
+        dto.setPhoto(issue.getPhoto());
+        dto.setCoordinates(issue.getCoordinates());
+        dto.setDescription(issue.getDescription());
+        dto.setTitle(issue.getTitle());
+        dto.setAuthorUid(issue.getAuthorUid());
+        dto.setCategoryId(issue.getCategory().getId());
+        dto.setCreationDate(issue.getCreationDate());
+        dto.setStatus(issue.getStatus());
+        dto.setLikeCount(issue.getLikeCount());
+        return dto;
+    }
+
+    /**
+     * Maps the moderation response to the issue moderation response dto.
+     *
+     * @param moderationResponse the moderation response
+     * @return the issue moderation response dto
+     */
+    public static IssueModerationResponseResponseDto toModerationResponseDto(ModerationResponse moderationResponse) {
+        IssueModerationResponseResponseDto dto = new IssueModerationResponseResponseDto();
+        dto.setCreationDate(moderationResponse.getCreationDate());
+        dto.setComment(moderationResponse.getComment());
+        return dto;
+    }
+}
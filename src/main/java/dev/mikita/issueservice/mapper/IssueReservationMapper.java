@@ -0,0 +1,60 @@
+package dev.mikita.issueservice.mapper;
+
+import dev.mikita.issueservice.dto.response.common.IssueReservationResponseDto;
+import dev.mikita.issueservice.dto.response.employee.IssueReservationEmployeeResponseDto;
+import dev.mikita.issueservice.dto.response.service.IssueReservationServiceResponseDto;
+import dev.mikita.issueservice.entity.IssueReservation;
+
+/**
+ * Maps issue reservations to the role-specific response DTOs.
+ */
+public final class IssueReservationMapper {
+    private IssueReservationMapper() {}
+
+    /**
+     * Maps the reservation to the public response dto.
+     *
+     * @param reservation the reservation
+     * @return the issue reservation response dto
+     */
+    public static IssueReservationResponseDto toResponseDto(IssueReservation reservation) {
+        IssueReservationResponseDto dto = new IssueReservationResponseDto();
+        dto.setId(reservation.getId());
+        dto.setCreationDate(reservation.getCreationDate());
+        dto.setServiceUid(reservation.getServiceUid());
+        dto.setIssueId(reservation.getIssue().getId());
+        return dto;
+    }
+
+    /**
+     * Maps the reservation to the response dto of the owning service.
+     *
+     * @param reservation the reservation
+     * @return the issue reservation service response dto
+     */
+    public static IssueReservationServiceResponseDto toServiceResponseDto(IssueReservation reservation) {
+        IssueReservationServiceResponseDto dto = new IssueReservationServiceResponseDto();
+        dto.setId(reservation.getId());
+        dto.setCreationDate(reservation.getCreationDate());
+        dto.setEmployeeUid(reservation.getEmployeeUid());
+        dto.setDepartmentUid(reservation.getDepartmentUid());
+        dto.setIssueId(reservation.getIssue().getId());
+        return dto;
+    }
+
+    /**
+     * Maps the reservation to the response dto of the employee.
+     *
+     * @param reservation the reservation
+     * @return the issue reservation employee response dto
+     */
+    public static IssueReservationEmployeeResponseDto toEmployeeResponseDto(IssueReservation reservation) {
+        IssueReservationEmployeeResponseDto dto = new IssueReservationEmployeeResponseDto();
+        dto.setId(reservation.getId());
+        dto.setCreationDate(reservation.getCreationDate());
+        dto.setServiceUid(reservation.getServiceUid());
+        dto.setDepartmentUid(reservation.getDepartmentUid());
+        dto.setIssueId(reservation.getIssue().getId());
+        return dto;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.mikita.issueservice.mapper;
+
+import dev.mikita.issueservice.dto.response.common.IssueSolutionResponseDto;
+import dev.mikita.issueservice.dto.response.employee.IssueSolutionEmployeeResponseDto;
+import dev.mikita.issueservice.dto.response.service.IssueSolutionServiceResponseDto;
+import dev.mikita.issueservice.entity.IssueSolution;
+
+/**
+ * Maps issue solutions to the role-specific response DTOs.
+ */
+public final class IssueSolutionMapper {
+    private IssueSolutionMapper() {}
+
+    /**
+     * Maps the solution to the public response dto.
+     *
+     * @param solution the solution
+     * @return the issue solution response dto
+     */
+    public static IssueSolutionResponseDto toResponseDto(IssueSolution solution) {
+        IssueSolutionResponseDto dto = new IssueSolutionResponseDto();
+        dto.setId(solution.getId());
+        dto.setPhoto(solution.getPhoto());
+        dto.setDescription(solution.getDescription());
+        dto.setCreationDate(solution.getCreationDate());
+        dto.setServiceUid(solution.getServiceUid());
+        dto.setIssueId(solution.getIssue().getId());
+        return dto;
+    }
+
+    /**
+     * Maps the solution to the response dto of the owning service.
+     *
+     * @param solution the solution
+     * @return the issue solution service response dto
+     */
+    public static IssueSolutionServiceResponseDto toServiceResponseDto(IssueSolution solution) {
+        IssueSolutionServiceResponseDto dto = new IssueSolutionServiceResponseDto();
+        dto.setId(solution.getId());
+        dto.setPhoto(solution.getPhoto());
+        dto.setDescription(solution.getDescription());
+        dto.setCreationDate(solution.getCreationDate());
+        dto.setEmployeeUid(solution.getEmployeeUid());
+        dto.setDepartmentUid(solution.getDepartmentUid());
+        dto.setIssueId(solution.getIssue().getId());
+        return dto;
+    }
+
+    /**
+     * Maps the solution to the response dto of the employee.
+     *
+     * @param solution the solution
+     * @return the issue solution employee response dto
+     */
+    public static IssueSolutionEmployeeResponseDto toEmployeeResponseDto(IssueSolution solution) {
+        IssueSolutionEmployeeResponseDto dto = new IssueSolutionEmployeeResponseDto();
+        dto.setId(solution.getId());
+        dto.setPhoto(solution.getPhoto());
+        dto.setDescription(solution.getDescription());
+        dto.setCreationDate(solution.getCreationDate());
+        dto.setServiceUid(solution.getServiceUid());
+        dto.setDepartmentUid(solution.getDepartmentUid());
+        dto.setIssueId(solution.getIssue().getId());
+        return dto;
+    }
+}
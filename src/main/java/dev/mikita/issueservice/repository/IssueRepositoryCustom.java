@@ -0,0 +1,123 @@
+package dev.mikita.issueservice.repository;
+
+import dev.mikita.issueservice.dto.response.common.IssueClusterResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueDistanceResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueShortResponseDto;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.index.IndexedIssue;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import dev.mikita.issueservice.util.IssueCursor;
+import org.locationtech.jts.geom.Point;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The interface Issue repository custom.
+ */
+public interface IssueRepositoryCustom {
+    /**
+     * Raw coordinates of an issue.
+     *
+     * @param longitude the longitude
+     * @param latitude  the latitude
+     */
+    record Coordinates(double longitude, double latitude) {}
+
+    /**
+     * Finds issues following the cursor position (keyset pagination).
+     * Seeks on (sort key, id) instead of skipping rows, no count query is executed.
+     *
+     * @param spec   the filter specification
+     * @param cursor the cursor, null for the first page
+     * @param order  the sort order
+     * @param limit  the maximum number of issues
+     * @return the list
+     */
+    List<Issue> findAllAfter(Specification<Issue> spec, IssueCursor cursor, Sort.Order order, int limit);
+
+    /**
+     * Finds a page of issues without counting them.
+     * Fetches one extra row to tell whether there is a next page.
+     *
+     * @param spec     the filter specification
+     * @param pageable the pageable
+     * @return the slice
+     */
+    Slice<Issue> findSlice(Specification<Issue> spec, Pageable pageable);
+
+    /**
+     * Streams the short representation of issues, selecting only the columns it needs.
+     * Rows are read through a forward-only cursor and are not managed by the persistence context.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param spec      the filter specification
+     * @param fetchSize the number of rows fetched per round trip
+     * @param limit     the maximum number of issues
+     * @return the stream
+     */
+    Stream<IssueShortResponseDto> streamShort(Specification<Issue> spec, int fetchSize, int limit);
+
+    /**
+     * Streams only the raw coordinates of issues, read from the planar location column,
+     * so that no geometry is built per row.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param spec      the filter specification
+     * @param fetchSize the number of rows fetched per round trip
+     * @param limit     the maximum number of issues
+     * @return the stream
+     */
+    Stream<Coordinates> streamCoordinates(Specification<Issue> spec, int fetchSize, int limit);
+
+    /**
+     * Finds issues ordered by their distance from the point, then by id, following the cursor position.
+     * The ordering uses the KNN operator, so the nearest issues are read from the coordinates GiST index.
+     *
+     * @param spec   the filter specification
+     * @param point  the point in SRID 4326
+     * @param cursor the cursor, null for the first page
+     * @param limit  the maximum number of issues
+     * @return the list
+     */
+    List<IssueDistanceResponseDto> findNearest(Specification<Issue> spec, Point point, IssueCursor cursor, int limit);
+
+    /**
+     * Streams issues in the form held by the spatial index.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param spec      the filter specification
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the stream
+     */
+    Stream<IndexedIssue> streamIndexed(Specification<Issue> spec, int fetchSize);
+
+    /**
+     * Aggregates issues in the square into grid cells of the given size.
+     * Snapping and counting run in the database, only one row per cell, status and category is returned.
+     *
+     * @param filter       the filter, holder values are ignored
+     * @param minLongitude the min longitude
+     * @param minLatitude  the min latitude
+     * @param maxLongitude the max longitude
+     * @param maxLatitude  the max latitude
+     * @param cellSize     the cell size in degrees
+     * @return the clusters
+     */
+    List<IssueClusterResponseDto> findClusters(IssueFilter filter, double minLongitude, double minLatitude,
+                                               double maxLongitude, double maxLatitude, double cellSize);
+
+    /**
+     * Renders the Mapbox vector tile of issues in the database.
+     *
+     * @param filter the filter, holder values are ignored
+     * @param z      the zoom
+     * @param x      the column
+     * @param y      the row
+     * @return the encoded tile, empty when there are no issues
+     */
+    byte[] findTile(IssueFilter filter, int z, int x, int y);
+}
@@ -0,0 +1,320 @@
+package dev.mikita.issueservice.repository;
+
+import dev.mikita.issueservice.config.SpatialFunctionContributor;
+import dev.mikita.issueservice.dto.response.common.IssueClusterResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueDistanceResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueShortResponseDto;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.exception.ValidationException;
+import dev.mikita.issueservice.index.IndexedIssue;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import dev.mikita.issueservice.repository.specification.IssueSpecifications;
+import dev.mikita.issueservice.util.IssueCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The type Issue repository custom implementation.
+ */
+public class IssueRepositoryCustomImpl implements IssueRepositoryCustom {
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Issue> findAllAfter(Specification<Issue> spec, IssueCursor cursor, Sort.Order order, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Issue> query = cb.createQuery(Issue.class);
+        Root<Issue> issue = query.from(Issue.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = spec.toPredicate(issue, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+
+        Expression<? extends Comparable<?>> sortKey = getSortKey(issue, order.getProperty());
+        Path<Long> id = issue.get("id");
+
+        if (cursor != null) {
+            if (!cursor.getFieldName().equals(order.getProperty())) {
+                throw new ValidationException("Cursor does not match the requested ordering.");
+            }
+
+            Comparable<?> value = parseSortValue(order.getProperty(), cursor.getValue());
+            predicates.add(cb.or(
+                    after(cb, sortKey, value, order.isAscending()),
+                    cb.and(cb.equal(sortKey, value), after(cb, id, cursor.getId(), order.isAscending()))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(order.isAscending()
+                ? List.of(cb.asc(sortKey), cb.asc(id))
+                : List.of(cb.desc(sortKey), cb.desc(id)));
+
+        return entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Issue.LIST_GRAPH))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Slice<Issue> findSlice(Specification<Issue> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Issue> query = cb.createQuery(Issue.class);
+        Root<Issue> issue = query.from(Issue.class);
+
+        applyFilter(spec, issue, query, cb);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), issue, cb));
+
+        List<Issue> issues = entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Issue.LIST_GRAPH))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = issues.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? issues.subList(0, pageable.getPageSize()) : issues, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<IssueShortResponseDto> streamShort(Specification<Issue> spec, int fetchSize, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IssueShortResponseDto> query = cb.createQuery(IssueShortResponseDto.class);
+        Root<Issue> issue = query.from(Issue.class);
+
+        query.select(cb.construct(IssueShortResponseDto.class,
+                issue.get("id"),
+                issue.get("coordinates"),
+                issue.get("title"),
+                issue.get("category").get("id"),
+                issue.get("status")));
+        applyFilter(spec, issue, query, cb);
+
+        return stream(entityManager.createQuery(query), fetchSize, limit);
+    }
+
+    @Override
+    public Stream<Coordinates> streamCoordinates(Specification<Issue> spec, int fetchSize, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Coordinates> query = cb.createQuery(Coordinates.class);
+        Root<Issue> issue = query.from(Issue.class);
+
+        query.select(cb.construct(Coordinates.class,
+                cb.function(SpatialFunctionContributor.POINT_LONGITUDE, Double.class, issue.get("location")),
+                cb.function(SpatialFunctionContributor.POINT_LATITUDE, Double.class, issue.get("location"))));
+        applyFilter(spec, issue, query, cb);
+
+        return stream(entityManager.createQuery(query), fetchSize, limit);
+    }
+
+    @Override
+    public List<IssueDistanceResponseDto> findNearest(Specification<Issue> spec, Point point, IssueCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IssueDistanceResponseDto> query = cb.createQuery(IssueDistanceResponseDto.class);
+        Root<Issue> issue = query.from(Issue.class);
+
+        Expression<Double> distance = cb.function(SpatialFunctionContributor.KNN_DISTANCE, Double.class,
+                issue.get("coordinates"), IssueSpecifications.geography(cb, point));
+        Path<Long> id = issue.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = spec.toPredicate(issue, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+
+        if (cursor != null) {
+            double value = cursor.getDistance();
+            predicates.add(cb.or(
+                    cb.greaterThan(distance, value),
+                    cb.and(cb.equal(distance, value), cb.greaterThan(id, cursor.getId()))));
+        }
+
+        query.select(cb.construct(IssueDistanceResponseDto.class,
+                id,
+                issue.get("coordinates"),
+                issue.get("title"),
+                issue.get("category").get("id"),
+                issue.get("status"),
+                distance));
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(distance), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<IndexedIssue> streamIndexed(Specification<Issue> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IndexedIssue> query = cb.createQuery(IndexedIssue.class);
+        Root<Issue> issue = query.from(Issue.class);
+
+        query.select(cb.construct(IndexedIssue.class,
+                issue.get("id"),
+                issue.get("coordinates"),
+                issue.get("title"),
+                issue.get("category").get("id"),
+                issue.get("status"),
+                issue.get("creationDate")));
+        applyFilter(spec, issue, query, cb);
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<IssueClusterResponseDto> findClusters(IssueFilter filter, double minLongitude, double minLatitude,
+                                                      double maxLongitude, double maxLatitude, double cellSize) {
+        StringBuilder where = new StringBuilder(
+                "i.location && ST_MakeEnvelope(:minLongitude, :minLatitude, :maxLongitude, :maxLatitude, 4326)");
+        appendFilter(where, filter);
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT ST_X(g.cell), ST_Y(g.cell), g.status, g.category_id, "
+                        + "COUNT(*), SUM(ST_X(g.point)), SUM(ST_Y(g.point)) "
+                        + "FROM (SELECT i.status, i.category_id, i.location AS point, "
+                        + "ST_SnapToGrid(i.location, :cellSize) AS cell "
+                        + "FROM bc_issue i WHERE " + where + ") g "
+                        + "GROUP BY 1, 2, 3, 4");
+
+        query.setParameter("minLongitude", minLongitude);
+        query.setParameter("minLatitude", minLatitude);
+        query.setParameter("maxLongitude", maxLongitude);
+        query.setParameter("maxLatitude", maxLatitude);
+        query.setParameter("cellSize", cellSize);
+        bindFilter(query, filter);
+
+        // Rows are per cell, status and category, they are folded into one cluster per cell
+        Map<List<Object>, IssueClusterResponseDto> clusters = new LinkedHashMap<>();
+        Map<List<Object>, double[]> sums = new HashMap<>();
+
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            List<Object> cell = List.of(row[0], row[1]);
+            IssueClusterResponseDto cluster = clusters.computeIfAbsent(cell, key -> new IssueClusterResponseDto());
+            double[] sum = sums.computeIfAbsent(cell, key -> new double[2]);
+
+            long count = ((Number) row[4]).longValue();
+            cluster.setCount(cluster.getCount() + count);
+            cluster.getStatuses().merge(IssueStatus.valueOf((String) row[2]), count, Long::sum);
+            cluster.getCategories().merge(((Number) row[3]).longValue(), count, Long::sum);
+            sum[0] += ((Number) row[5]).doubleValue();
+            sum[1] += ((Number) row[6]).doubleValue();
+        }
+
+        clusters.forEach((cell, cluster) -> {
+            double[] sum = sums.get(cell);
+            cluster.setCoordinates(GEOMETRY_FACTORY.createPoint(
+                    new Coordinate(sum[0] / cluster.getCount(), sum[1] / cluster.getCount())));
+        });
+
+        return new ArrayList<>(clusters.values());
+    }
+
+    @Override
+    public byte[] findTile(IssueFilter filter, int z, int x, int y) {
+        StringBuilder where = new StringBuilder("i.location && ST_Transform(ST_TileEnvelope(:z, :x, :y), 4326)");
+        appendFilter(where, filter);
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT ST_AsMVT(t, 'issues', 4096, 'geom') "
+                        + "FROM (SELECT i.id, i.title, i.status, i.category_id, "
+                        + "ST_AsMVTGeom(ST_Transform(i.location, 3857), ST_TileEnvelope(:z, :x, :y)) AS geom "
+                        + "FROM bc_issue i WHERE " + where + ") t");
+
+        query.setParameter("z", z);
+        query.setParameter("x", x);
+        query.setParameter("y", y);
+        bindFilter(query, filter);
+
+        byte[] tile = (byte[]) query.getSingleResult();
+        return tile == null ? new byte[0] : tile;
+    }
+
+    private void appendFilter(StringBuilder where, IssueFilter filter) {
+        if (filter.getStatuses() != null) where.append(" AND i.status IN (:statuses)");
+        if (filter.getCategories() != null) where.append(" AND i.category_id IN (:categories)");
+        if (filter.getFrom() != null) where.append(" AND i.creation_date >= :from");
+        if (filter.getTo() != null) where.append(" AND i.creation_date <= :to");
+    }
+
+    private void bindFilter(Query query, IssueFilter filter) {
+        if (filter.getStatuses() != null) {
+            query.setParameter("statuses", filter.getStatuses().stream().map(Enum::name).toList());
+        }
+        if (filter.getCategories() != null) query.setParameter("categories", filter.getCategories());
+        if (filter.getFrom() != null) query.setParameter("from", filter.getFrom());
+        if (filter.getTo() != null) query.setParameter("to", filter.getTo());
+    }
+
+    private <T> Stream<T> stream(TypedQuery<T> query, int fetchSize, int limit) {
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setMaxResults(limit)
+                .getResultStream();
+    }
+
+    private void applyFilter(Specification<Issue> spec, Root<Issue> issue, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate filter = spec.toPredicate(issue, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+    }
+
+    private Expression<? extends Comparable<?>> getSortKey(Root<Issue> issue, String fieldName) {
+        return switch (fieldName) {
+            case "creationDate", "status", "title", "likeCount" -> issue.get(fieldName);
+            case "category" -> issue.get("category").get("id");
+            default -> throw new ValidationException("Cursor pagination is not supported for this ordering.");
+        };
+    }
+
+    private Comparable<?> parseSortValue(String fieldName, String value) {
+        try {
+            return switch (fieldName) {
+                case "creationDate" -> LocalDateTime.parse(value);
+                case "status" -> IssueStatus.valueOf(value);
+                case "title" -> value;
+                case "category" -> Long.valueOf(value);
+                case "likeCount" -> Integer.valueOf(value);
+                default -> throw new ValidationException("Cursor pagination is not supported for this ordering.");
+            };
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Predicate after(CriteriaBuilder cb, Expression key, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+    }
+}
@@ -0,0 +1,17 @@
+package dev.mikita.issueservice.repository;
+
+import dev.mikita.issueservice.entity.IssueSolution;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The interface Issue solution repository custom.
+ */
+public interface IssueSolutionRepositoryCustom {
+    /**
+     * Gets average time in seconds between the reservation and the solution of an issue.
+     *
+     * @param spec the filter specification
+     * @return the average solutions time, null if there are no solutions
+     */
+    Double getAverageSolutionsTime(Specification<IssueSolution> spec);
+}
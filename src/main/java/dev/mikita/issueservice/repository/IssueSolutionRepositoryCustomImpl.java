@@ -0,0 +1,36 @@
+package dev.mikita.issueservice.repository;
+
+import dev.mikita.issueservice.entity.IssueReservation;
+import dev.mikita.issueservice.entity.IssueSolution;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The type Issue solution repository custom implementation.
+ */
+public class IssueSolutionRepositoryCustomImpl implements IssueSolutionRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Double getAverageSolutionsTime(Specification<IssueSolution> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Double> query = cb.createQuery(Double.class);
+        Root<IssueSolution> solution = query.from(IssueSolution.class);
+        Root<IssueReservation> reservation = query.from(IssueReservation.class);
+
+        Expression<Double> solvedAt = cb.function("DATE_PART", Double.class,
+                cb.literal("EPOCH"), solution.get("creationDate"));
+        Expression<Double> reservedAt = cb.function("DATE_PART", Double.class,
+                cb.literal("EPOCH"), reservation.get("creationDate"));
+        query.select(cb.avg(cb.diff(solvedAt, reservedAt)));
+
+        Predicate sameIssue = cb.equal(reservation.get("issue"), solution.get("issue"));
+        Predicate filter = spec.toPredicate(solution, query, cb);
+        query.where(filter == null ? sameIssue : cb.and(sameIssue, filter));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
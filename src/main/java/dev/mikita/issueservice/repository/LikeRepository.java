@@ -2,6 +2,7 @@ package dev.mikita.issueservice.repository;
 
 import dev.mikita.issueservice.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
@@ -40,4 +41,74 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END " +
             "FROM Like l WHERE l.issue.id = :issueId AND l.residentUid = :residentUid")
     Boolean getLikeStatus(@Param("issueId") Long issueId, @Param("residentUid") String residentUid);
+
+    /**
+     * Finds the ids of all issues liked by the resident.
+     *
+     * @param residentUid the resident id
+     * @return the issue ids
+     */
+    @Query("SELECT l.issue.id FROM Like l WHERE l.residentUid = :residentUid")
+    List<Long> findIssueIdsByResidentUid(@Param("residentUid") String residentUid);
+
+    /**
+     * Sums the likes of published issues made since the given time, each weighted by its age
+     * with the given decay, and returns the issues with the highest sums.
+     * Reads only the recent likes through the creation date index.
+     *
+     * @param age   the maximum age of the likes in seconds
+     * @param tau   the mean lifetime of a like weight in seconds
+     * @param limit the maximum number of issues
+     * @return the rows of issue id and score
+     */
+    @Query(value = "SELECT l.issue_id, SUM(EXP(EXTRACT(EPOCH FROM l.creation_date - LOCALTIMESTAMP) / :tau)) AS score " +
+            "FROM bc_like l JOIN bc_issue i ON i.id = l.issue_id " +
+            "WHERE l.creation_date >= LOCALTIMESTAMP - make_interval(secs => :age) AND i.status = 'PUBLISHED' " +
+            "GROUP BY l.issue_id ORDER BY score DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findRecentScores(@Param("age") double age, @Param("tau") double tau, @Param("limit") int limit);
+
+    /**
+     * Adds the like of the resident and counts it on the issue in one statement.
+     * Issues in moderation or deleted are not liked, an existing like is left as it is.
+     * The id is drawn from the sequence Hibernate uses for likes.
+     *
+     * @param issueId     the issue id
+     * @param residentUid the resident id
+     * @return 1 when the like was added, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH inserted AS (" +
+            "INSERT INTO bc_like (id, issue_id, resident_uid, creation_date) " +
+            "SELECT nextval('like_seq'), i.id, :residentUid, LOCALTIMESTAMP FROM bc_issue i " +
+            "WHERE i.id = :issueId AND i.status NOT IN ('MODERATION', 'DELETED') " +
+            "ON CONFLICT ON CONSTRAINT unique_issue_resident DO NOTHING " +
+            "RETURNING issue_id) " +
+            "UPDATE bc_issue SET like_count = like_count + 1 WHERE id IN (SELECT issue_id FROM inserted)",
+            nativeQuery = true)
+    int insertLike(@Param("issueId") Long issueId, @Param("residentUid") String residentUid);
+
+    /**
+     * Removes the like of the resident and uncounts it on the issue in one statement.
+     * Likes of issues in moderation or deleted are not removed.
+     * The age is measured by the database clock, which also dated the like.
+     * <p>
+     * Not {@link Modifying}, since a modifying query is run as an update and cannot return the removed row.
+     * The caller flushes the persistence context before and clears it after the call, so that no managed issue
+     * keeps the like_count it had before.
+     *
+     * @param issueId     the issue id
+     * @param residentUid the resident id
+     * @return the age of the removed like in seconds, null for likes made before their date was recorded,
+     * empty when no like was removed
+     */
+    @Query(value = "WITH deleted AS (" +
+            "DELETE FROM bc_like l USING bc_issue i " +
+            "WHERE l.issue_id = :issueId AND l.resident_uid = :residentUid " +
+            "AND i.id = l.issue_id AND i.status NOT IN ('MODERATION', 'DELETED') " +
+            "RETURNING l.issue_id, l.creation_date), " +
+            "counted AS (" +
+            "UPDATE bc_issue SET like_count = GREATEST(like_count - 1, 0) WHERE id IN (SELECT issue_id FROM deleted)) " +
+            "SELECT CAST(EXTRACT(EPOCH FROM LOCALTIMESTAMP - creation_date) AS double precision) FROM deleted",
+            nativeQuery = true)
+    List<Double> deleteLike(@Param("issueId") Long issueId, @Param("residentUid") String residentUid);
 }
@@ -0,0 +1,21 @@
+package dev.mikita.issueservice.repository.filter;
+
+import dev.mikita.issueservice.entity.IssueStatus;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The type Issue filter.
+ */
+@Data
+public class IssueFilter {
+    private List<IssueStatus> statuses;
+    private String authorUid;
+    private List<Long> categories;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String serviceUid;
+    private String departmentUid;
+    private String employeeUid;
+}
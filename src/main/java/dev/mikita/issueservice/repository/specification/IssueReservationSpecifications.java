@@ -0,0 +1,61 @@
+package dev.mikita.issueservice.repository.specification;
+
+import dev.mikita.issueservice.entity.IssueReservation;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Issue reservation query predicates. Every factory returns null for a missing value,
+ * so only the supplied filters end up in the generated SQL.
+ */
+public final class IssueReservationSpecifications {
+    private IssueReservationSpecifications() {}
+
+    /**
+     * Combines all supplied filter values.
+     *
+     * @param serviceUid    the service uid
+     * @param employeeUid   the employee uid
+     * @param departmentUid the department uid
+     * @param categories    the categories
+     * @param from          the from
+     * @param to            the to
+     * @return the specification
+     */
+    public static Specification<IssueReservation> matching(
+            String serviceUid, String employeeUid, String departmentUid,
+            List<Long> categories, LocalDateTime from, LocalDateTime to) {
+        return Specification.where(hasService(serviceUid))
+                .and(hasEmployee(employeeUid))
+                .and(hasDepartment(departmentUid))
+                .and(hasCategoryIn(categories))
+                .and(createdFrom(from))
+                .and(createdTo(to));
+    }
+
+    public static Specification<IssueReservation> hasService(String serviceUid) {
+        return serviceUid == null ? null : (root, query, cb) -> cb.equal(root.get("serviceUid"), serviceUid);
+    }
+
+    public static Specification<IssueReservation> hasEmployee(String employeeUid) {
+        return employeeUid == null ? null : (root, query, cb) -> cb.equal(root.get("employeeUid"), employeeUid);
+    }
+
+    public static Specification<IssueReservation> hasDepartment(String departmentUid) {
+        return departmentUid == null ? null : (root, query, cb) -> cb.equal(root.get("departmentUid"), departmentUid);
+    }
+
+    public static Specification<IssueReservation> hasCategoryIn(List<Long> categories) {
+        return categories == null ? null
+                : (root, query, cb) -> root.get("issue").get("category").get("id").in(categories);
+    }
+
+    public static Specification<IssueReservation> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("creationDate"), from);
+    }
+
+    public static Specification<IssueReservation> createdTo(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("creationDate"), to);
+    }
+}
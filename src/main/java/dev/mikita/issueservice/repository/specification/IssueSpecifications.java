@@ -0,0 +1,151 @@
+package dev.mikita.issueservice.repository.specification;
+
+import dev.mikita.issueservice.config.SpatialFunctionContributor;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.entity.IssueReservation;
+import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Issue query predicates. Every factory returns null for a missing value,
+ * so only the supplied filters end up in the generated SQL.
+ */
+public final class IssueSpecifications {
+    private IssueSpecifications() {}
+
+    /**
+     * Combines all supplied values of the filter.
+     *
+     * @param filter the filter
+     * @return the specification
+     */
+    public static Specification<Issue> matching(IssueFilter filter) {
+        return Specification.where(hasStatusIn(filter.getStatuses()))
+                .and(hasAuthor(filter.getAuthorUid()))
+                .and(hasCategoryIn(filter.getCategories()))
+                .and(createdFrom(filter.getFrom()))
+                .and(createdTo(filter.getTo()))
+                .and(isHeldBy(filter.getServiceUid(), filter.getDepartmentUid(), filter.getEmployeeUid()));
+    }
+
+    public static Specification<Issue> hasStatusIn(List<IssueStatus> statuses) {
+        return statuses == null ? null : (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Issue> hasAuthor(String authorUid) {
+        return authorUid == null ? null : (root, query, cb) -> cb.equal(root.get("authorUid"), authorUid);
+    }
+
+    public static Specification<Issue> hasCategoryIn(List<Long> categories) {
+        return categories == null ? null : (root, query, cb) -> root.get("category").get("id").in(categories);
+    }
+
+    public static Specification<Issue> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("creationDate"), from);
+    }
+
+    public static Specification<Issue> createdTo(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("creationDate"), to);
+    }
+
+    /**
+     * Restricts issues to those reserved by the given service, department or employee.
+     * The reservation is looked up by a correlated subquery, only when at least one holder is supplied.
+     *
+     * @param serviceUid    the service uid
+     * @param departmentUid the department uid
+     * @param employeeUid   the employee uid
+     * @return the specification
+     */
+    public static Specification<Issue> isHeldBy(String serviceUid, String departmentUid, String employeeUid) {
+        if (serviceUid == null && departmentUid == null && employeeUid == null) {
+            return null;
+        }
+
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<IssueReservation> reservation = subquery.from(IssueReservation.class);
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(reservation.get("issue"), root));
+
+            if (serviceUid != null) {
+                predicates.add(cb.equal(reservation.get("serviceUid"), serviceUid));
+            }
+            if (departmentUid != null) {
+                predicates.add(cb.equal(reservation.get("departmentUid"), departmentUid));
+            }
+            if (employeeUid != null) {
+                predicates.add(cb.equal(reservation.get("employeeUid"), employeeUid));
+            }
+
+            subquery.select(reservation.get("id")).where(predicates.toArray(new Predicate[0]));
+            return cb.exists(subquery);
+        };
+    }
+
+    /**
+     * Restricts issues to the distance from the point, measured on the spheroid
+     * as ST_DWithin does by default for geography. Served by the coordinates GiST index.
+     *
+     * @param point    the point in SRID 4326
+     * @param distance the distance in meters
+     * @return the specification
+     */
+    public static Specification<Issue> isWithinDistance(Point point, Double distance) {
+        if (point == null || distance == null) {
+            return null;
+        }
+
+        return (root, query, cb) -> cb.isTrue(cb.function("ST_DWithin", Boolean.class,
+                root.get("coordinates"), geography(cb, point), cb.literal(distance), cb.literal(true)));
+    }
+
+    /**
+     * Binds the point as a geography value.
+     *
+     * @param cb    the criteria builder
+     * @param point the point in SRID 4326
+     * @return the expression
+     */
+    public static Expression<Geometry> geography(CriteriaBuilder cb, Point point) {
+        return cb.function("geography", Geometry.class, cb.literal(point));
+    }
+
+    public static Specification<Issue> isInCell(String geohash) {
+        return geohash == null ? null : (root, query, cb) -> cb.like(root.get("geohash"), geohash + "%");
+    }
+
+    /**
+     * Restricts issues to the square. Compares the planar location by bounding box,
+     * which is exact for points and is served by the location GiST index.
+     *
+     * @param minLongitude the min longitude
+     * @param minLatitude  the min latitude
+     * @param maxLongitude the max longitude
+     * @param maxLatitude  the max latitude
+     * @return the specification
+     */
+    public static Specification<Issue> isWithinSquare(
+            Double minLongitude, Double minLatitude, Double maxLongitude, Double maxLatitude) {
+        if (minLongitude == null || minLatitude == null || maxLongitude == null || maxLatitude == null) {
+            return null;
+        }
+
+        return (root, query, cb) -> cb.isTrue(cb.function(SpatialFunctionContributor.BBOX_INTERSECTS, Boolean.class,
+                root.get("location"),
+                cb.function("ST_MakeEnvelope", Geometry.class,
+                        cb.literal(minLongitude), cb.literal(minLatitude),
+                        cb.literal(maxLongitude), cb.literal(maxLatitude), cb.literal(4326))));
+    }
+}
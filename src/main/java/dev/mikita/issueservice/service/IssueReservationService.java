@@ -1,19 +1,22 @@
 package dev.mikita.issueservice.service;
 
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
+import dev.mikita.issueservice.auth.FirebasePrincipal;
 import dev.mikita.issueservice.dto.ChangeIssueStatusNotificationDto;
 import dev.mikita.issueservice.entity.Department;
 import dev.mikita.issueservice.entity.Issue;
 import dev.mikita.issueservice.entity.IssueReservation;
 import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.event.IssueChangedEvent;
 import dev.mikita.issueservice.exception.NotFoundException;
 import dev.mikita.issueservice.repository.DepartmentRepository;
 import dev.mikita.issueservice.repository.EmployeeRepository;
 import dev.mikita.issueservice.repository.IssueRepository;
 import dev.mikita.issueservice.repository.IssueReservationRepository;
+import dev.mikita.issueservice.repository.specification.IssueReservationSpecifications;
 import jakarta.security.auth.message.AuthException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -35,6 +38,7 @@ public class IssueReservationService {
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
     private final KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String STATUS_CHANGE_TOPIC = "notifications";
 
     @Autowired
@@ -42,16 +46,18 @@ public class IssueReservationService {
                                    IssueRepository issueRepository,
                                    EmployeeRepository employeeRepository,
                                    DepartmentRepository departmentRepository,
-                                   KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate) {
+                                   KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate,
+                                   ApplicationEventPublisher eventPublisher) {
         this.issueReservationRepository = issueReservationRepository;
         this.issueRepository = issueRepository;
         this.employeeRepository = employeeRepository;
         this.departmentRepository = departmentRepository;
         this.kafkaTemplate = kafkaTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
-    public void createIssueReservation(Long issueId, FirebaseToken token)
+    public void createIssueReservation(Long issueId, FirebasePrincipal principal)
             throws AuthException, ExecutionException, FirebaseAuthException, InterruptedException {
         // Get Issue
         Issue issue = issueRepository.findById(issueId).orElseThrow(
@@ -63,7 +69,7 @@ public class IssueReservationService {
         }
 
         // Get Department
-        Department department = departmentRepository.find(token.getClaims().get("departmentUid").toString());
+        Department department = departmentRepository.find(principal.claim("departmentUid").toString());
 
         // Check department
         if (!department.getCategories().contains(issue.getCategory().getId())) {
@@ -76,11 +82,12 @@ public class IssueReservationService {
         // Create reservation
         IssueReservation issueReservation = new IssueReservation();
         issueReservation.setIssue(issue);
-        issueReservation.setServiceUid(token.getClaims().get("serviceUid").toString());
-        issueReservation.setEmployeeUid(token.getUid());
-        issueReservation.setDepartmentUid(token.getClaims().get("departmentUid").toString());
+        issueReservation.setServiceUid(principal.claim("serviceUid").toString());
+        issueReservation.setEmployeeUid(principal.uid());
+        issueReservation.setDepartmentUid(principal.claim("departmentUid").toString());
 
         issueReservationRepository.save(issueReservation);
+        eventPublisher.publishEvent(new IssueChangedEvent(issue));
 
         // Send notification
         ChangeIssueStatusNotificationDto notificationDto = new ChangeIssueStatusNotificationDto();
@@ -106,10 +113,8 @@ public class IssueReservationService {
         LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
         LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
 
-        int includeCategories = categories == null ? 0 : 1;
-
-        return issueReservationRepository.getIssuesReservations(
-                serviceId, employeeId, departmentId, fromDateTime, toDateTime, categories, includeCategories, pageable);
+        return issueReservationRepository.findAll(IssueReservationSpecifications.matching(
+                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime), pageable);
     }
 
     public Long getIssuesReservationsCount(
@@ -117,9 +122,7 @@ public class IssueReservationService {
         LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
         LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
 
-        int includeCategories = categories == null ? 0 : 1;
-
-        return issueReservationRepository.getIssuesReservationsCount(
-                serviceId, employeeId, departmentId, fromDateTime, toDateTime, categories, includeCategories);
+        return issueReservationRepository.count(IssueReservationSpecifications.matching(
+                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime));
     }
 }
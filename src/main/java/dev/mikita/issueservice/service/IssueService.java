@@ -1,26 +1,67 @@
 package dev.mikita.issueservice.service;
 
+import dev.mikita.issueservice.cache.IssueCellCache;
+import dev.mikita.issueservice.cache.IssueCountCache;
+import dev.mikita.issueservice.cache.IssueLikeCounter;
+import dev.mikita.issueservice.cache.IssueMapCache;
+import dev.mikita.issueservice.cache.IssueTileCache;
+import dev.mikita.issueservice.cache.ResidentLikeCache;
 import dev.mikita.issueservice.dto.ChangeIssueStatusNotificationDto;
 import dev.mikita.issueservice.dto.request.GetIssuesInSquareRequestDto;
+import dev.mikita.issueservice.dto.response.common.CoordinatesResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueClusterResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueDistanceResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueShortResponseDto;
+import dev.mikita.issueservice.dto.response.common.IssueTrendingResponseDto;
 import dev.mikita.issueservice.entity.*;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.event.IssueLikeChangedEvent;
 import dev.mikita.issueservice.exception.NotFoundException;
+import dev.mikita.issueservice.exception.ValidationException;
+import dev.mikita.issueservice.index.IndexedIssue;
+import dev.mikita.issueservice.index.IssueSpatialIndex;
+import dev.mikita.issueservice.index.TrendingIssueIndex;
 import dev.mikita.issueservice.repository.*;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import dev.mikita.issueservice.repository.specification.IssueSpecifications;
 import dev.mikita.issueservice.entity.IssueStatus;
 import dev.mikita.issueservice.util.FirebaseStorageUtil;
+import dev.mikita.issueservice.util.Geohash;
+import dev.mikita.issueservice.util.IssueCursor;
+import dev.mikita.issueservice.util.SphericalDistance;
+import jakarta.persistence.EntityManager;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The type Issue service.
@@ -35,9 +76,30 @@ public class IssueService {
     private final CategoryRepository categoryRepository;
     private final ModerationResponseRepository moderationResponseRepository;
     private final FirebaseStorageUtil firebaseStorageUtil;
+    private final IssueCountCache issueCountCache;
+    private final IssueTileCache issueTileCache;
+    private final IssueSpatialIndex issueSpatialIndex;
+    // Null when the spatial index is enabled
+    private final IssueCellCache issueCellCache;
+    private final IssueMapCache issueMapCache;
+    private final ResidentLikeCache residentLikeCache;
+    private final IssueLikeCounter issueLikeCounter;
+    private final TrendingIssueIndex trendingIssueIndex;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager entityManager;
+    private final int mapMaxResults;
+    private final int mapFetchSize;
+    private final int mapPointsMinZoom;
 
     private final KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String STATUS_CHANGE_TOPIC = "notifications";
+    private static final int CLUSTER_CELLS_PER_TILE = 4;
+    private static final int MAX_VIEWPORT_CELLS = 16;
+    private static final int MAX_NEAREST = 100;
+    private static final int MAX_LIKED_LOOKUP = 100;
+    private static final int MAX_TRENDING = 100;
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
 
     /**
      * Instantiates a new Issue service.
@@ -48,7 +110,21 @@ public class IssueService {
      * @param solutionRepository    the solution repository
      * @param categoryRepository    the category repository
      * @param firebaseStorageUtil   the firebase storage util
+     * @param issueCountCache       the issue count cache
+     * @param issueTileCache        the issue tile cache
+     * @param issueSpatialIndex     the issue spatial index
+     * @param issueCellCache        the issue cell cache, only present when the spatial index is disabled
+     * @param issueMapCache         the issue map cache
+     * @param residentLikeCache     the resident like cache
+     * @param issueLikeCounter      the issue like counter
+     * @param trendingIssueIndex    the trending issue index
+     * @param transactionManager    the transaction manager
+     * @param entityManager         the entity manager
+     * @param mapMaxResults         the maximum number of issues returned by the map endpoints
+     * @param mapFetchSize          the number of rows fetched per round trip by the map endpoints
+     * @param mapPointsMinZoom      the lowest zoom at which the map returns individual issues
      * @param kafkaTemplate         the kafka template
+     * @param eventPublisher        the event publisher
      */
     @Autowired
     public IssueService(IssueRepository repository,
@@ -58,7 +134,21 @@ public class IssueService {
                         CategoryRepository categoryRepository,
                         ModerationResponseRepository moderationResponseRepository,
                         FirebaseStorageUtil firebaseStorageUtil,
-                        KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate) {
+                        IssueCountCache issueCountCache,
+                        IssueTileCache issueTileCache,
+                        IssueSpatialIndex issueSpatialIndex,
+                        ObjectProvider<IssueCellCache> issueCellCache,
+                        IssueMapCache issueMapCache,
+                        ResidentLikeCache residentLikeCache,
+                        IssueLikeCounter issueLikeCounter,
+                        TrendingIssueIndex trendingIssueIndex,
+                        PlatformTransactionManager transactionManager,
+                        EntityManager entityManager,
+                        @Value("${issue.map.max-results:5000}") int mapMaxResults,
+                        @Value("${issue.map.fetch-size:500}") int mapFetchSize,
+                        @Value("${issue.map.points-min-zoom:14}") int mapPointsMinZoom,
+                        KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate,
+                        ApplicationEventPublisher eventPublisher) {
         this.issueRepository = repository;
         this.likeRepository = likeRepository;
         this.reservationRepository = reservationRepository;
@@ -66,65 +156,354 @@ public class IssueService {
         this.categoryRepository = categoryRepository;
         this.moderationResponseRepository = moderationResponseRepository;
         this.firebaseStorageUtil = firebaseStorageUtil;
+        this.issueCountCache = issueCountCache;
+        this.issueTileCache = issueTileCache;
+        this.issueSpatialIndex = issueSpatialIndex;
+        this.issueCellCache = issueCellCache.getIfAvailable();
+        this.issueMapCache = issueMapCache;
+        this.residentLikeCache = residentLikeCache;
+        this.issueLikeCounter = issueLikeCounter;
+        this.trendingIssueIndex = trendingIssueIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.mapMaxResults = mapMaxResults;
+        this.mapFetchSize = mapFetchSize;
+        this.mapPointsMinZoom = mapPointsMinZoom;
         this.kafkaTemplate = kafkaTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<Issue> getIssues(
             List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to, Pageable pageable) {
-        LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
-        LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
+        return getIssuesByHolder(null, null, null, statuses, authorUid, categories, from, to, pageable);
+    }
 
-        int includeStatuses = statuses == null ? 0 : 1;
-        int includeCategories = categories == null ? 0 : 1;
+    /**
+     * Gets a page of issues without the total count.
+     *
+     * @param statuses   the statuses
+     * @param authorUid  the author uid
+     * @param categories the categories
+     * @param from       the from
+     * @param to         the to
+     * @param pageable   the pageable
+     * @return the slice of issues
+     */
+    public Slice<Issue> getIssuesSlice(
+            List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to, Pageable pageable) {
+        return getIssuesByHolderSlice(null, null, null, statuses, authorUid, categories, from, to, pageable);
+    }
+
+    /**
+     * Gets a page of issues in the radius, ordered by the distance from the center, then by id.
+     * A radius fitting into one page is served from the map cache when it is cached, any longer listing
+     * is paged by the database only, so that every cursor is continued by the ordering that produced it.
+     *
+     * @param statuses   the statuses
+     * @param categories the categories
+     * @param from       the from
+     * @param to         the to
+     * @param distance   the distance in meters
+     * @param latitude   the latitude
+     * @param longitude  the longitude
+     * @param cursor     the encoded cursor, empty for the first page
+     * @param size       the page size
+     * @return the slice of issues with their distance
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Slice<IssueDistanceResponseDto> getIssuesInRadius(
+            List<IssueStatus> statuses, List<Long> categories, LocalDate from, LocalDate to,
+            double distance, double latitude, double longitude, String cursor, int size) {
+        if (size < 1 || size > mapMaxResults) {
+            throw new ValidationException("Page size must be between 1 and %d.".formatted(mapMaxResults));
+        }
 
-        return issueRepository.findAll(
-                statuses, authorUid, categories, fromDateTime, toDateTime, includeCategories, includeStatuses, pageable);
+        IssueFilter filter = createFilter(null, null, null, statuses, null, categories, from, to);
+        IssueCursor issueCursor = IssueCursor.decode(cursor);
+        if (issueCursor == null) {
+            List<IssueShortResponseDto> cached = issueMapCache.getInRadius(filter, latitude, longitude, distance,
+                    (snappedLatitude, snappedLongitude, snappedDistance) -> collectBounded(issues ->
+                            findInRadius(filter, snappedDistance, snappedLatitude, snappedLongitude, issues)));
+
+            // The in-memory distances differ from the database ones in the last digits, so no cursor is issued
+            if (cached != null && cached.size() <= size) {
+                Coordinate center = new Coordinate(longitude, latitude);
+                List<IssueDistanceResponseDto> issues = cached.stream()
+                        .map(issue -> toDistanceResponseDto(issue,
+                                SphericalDistance.between(center, issue.getCoordinates().getCoordinate())))
+                        .sorted(Comparator.comparing(IssueDistanceResponseDto::getDistance)
+                                .thenComparing(IssueDistanceResponseDto::getId))
+                        .toList();
+                return new SliceImpl<>(issues, PageRequest.ofSize(size), false);
+            }
+        }
+
+        Point center = createPoint(latitude, longitude);
+        Specification<Issue> spec = IssueSpecifications.matching(filter)
+                .and(IssueSpecifications.isWithinDistance(center, distance));
+        List<IssueDistanceResponseDto> issues = readOnlyTransaction.execute(status ->
+                issueRepository.findNearest(spec, center, issueCursor, size + 1));
+
+        boolean hasNext = issues.size() > size;
+        return new SliceImpl<>(hasNext ? issues.subList(0, size) : issues, PageRequest.ofSize(size), hasNext);
     }
 
-    public List<Issue> getIssuesInRadius(
-            List<IssueStatus> statuses, List<Long> categories, LocalDate from, LocalDate to, Double distance, Double latitude, Double longitude) {
-        LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
-        LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
-        String coordinatesString = createCoordinatesString(latitude, longitude);
+    /**
+     * Gets the issues nearest to the point, closest first.
+     *
+     * @param statuses   the statuses
+     * @param categories the categories
+     * @param from       the from
+     * @param to         the to
+     * @param latitude   the latitude
+     * @param longitude  the longitude
+     * @param limit      the number of issues
+     * @return the issues with their distance
+     */
+    public List<IssueDistanceResponseDto> getNearestIssues(
+            List<IssueStatus> statuses, List<Long> categories, LocalDate from, LocalDate to,
+            double latitude, double longitude, int limit) {
+        if (limit < 1 || limit > MAX_NEAREST) {
+            throw new ValidationException("Limit must be between 1 and %d.".formatted(MAX_NEAREST));
+        }
 
-        int includeStatuses = statuses == null ? 0 : 1;
-        int includeCategories = categories == null ? 0 : 1;
+        IssueFilter filter = createFilter(null, null, null, statuses, null, categories, from, to);
+        return issueRepository.findNearest(
+                IssueSpecifications.matching(filter), createPoint(latitude, longitude), null, limit);
+    }
 
-        return issueRepository.findAllByRadius(
-                statuses, categories, coordinatesString, distance, fromDateTime, toDateTime, includeCategories, includeStatuses);
+    /**
+     * Gets the published issues with the highest time-decayed like score, answered from memory.
+     *
+     * @param categories   the categories
+     * @param minLongitude the min longitude, null for no square
+     * @param minLatitude  the min latitude
+     * @param maxLongitude the max longitude
+     * @param maxLatitude  the max latitude
+     * @param limit        the number of issues
+     * @return the issues by descending score
+     */
+    public List<IssueTrendingResponseDto> getTrendingIssues(
+            List<Long> categories, Double minLongitude, Double minLatitude, Double maxLongitude, Double maxLatitude,
+            int limit) {
+        if (limit < 1 || limit > MAX_TRENDING) {
+            throw new ValidationException("Limit must be between 1 and %d.".formatted(MAX_TRENDING));
+        }
+
+        Envelope square = null;
+        if (minLongitude != null || minLatitude != null || maxLongitude != null || maxLatitude != null) {
+            if (minLongitude == null || minLatitude == null || maxLongitude == null || maxLatitude == null) {
+                throw new ValidationException("Square must have all of its bounds.");
+            }
+            square = new Envelope(minLongitude, maxLongitude, minLatitude, maxLatitude);
+        }
+
+        return trendingIssueIndex.findTop(categories, square, limit);
+    }
+
+    /**
+     * Gets issues in the square, at most the configured map result count.
+     * Served from the map cache, then from the spatial index when it covers the filter, otherwise from the database.
+     *
+     * @param requestDto the request dto
+     * @return the slice of issues, having a next slice when the result was truncated
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Slice<IssueShortResponseDto> getIssuesInSquare(GetIssuesInSquareRequestDto requestDto) {
+        List<IssueShortResponseDto> issues = new ArrayList<>();
+        boolean truncated = findInSquareCached(createSquareFilter(requestDto), createSquare(requestDto), issues::add);
+        return new SliceImpl<>(issues, PageRequest.ofSize(mapMaxResults), truncated);
+    }
+
+    /**
+     * Streams issues in the square to the consumer, at most the configured map result count.
+     * Rows go from the database cursor to the consumer one fetch at a time, bypassing the map cache,
+     * so that the result is never collected in memory.
+     *
+     * @param requestDto the request dto
+     * @param consumer   the consumer
+     * @return whether the result was truncated
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean streamIssuesInSquare(GetIssuesInSquareRequestDto requestDto, Consumer<IssueShortResponseDto> consumer) {
+        return findInSquareInDatabase(createSquareFilter(requestDto), createSquare(requestDto), consumer);
+    }
+
+    /**
+     * Gets only the coordinates of issues in the square, at most the configured map result count.
+     *
+     * @param requestDto the request dto
+     * @return the slice of coordinates, having a next slice when the result was truncated
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Slice<CoordinatesResponseDto> getIssuesCoordinatesInSquare(GetIssuesInSquareRequestDto requestDto) {
+        List<CoordinatesResponseDto> coordinates = new ArrayList<>();
+        boolean truncated = findInSquareCached(createSquareFilter(requestDto), createSquare(requestDto),
+                issue -> coordinates.add(new CoordinatesResponseDto(issue.getCoordinates())));
+        return new SliceImpl<>(coordinates, PageRequest.ofSize(mapMaxResults), truncated);
     }
 
-    public List<Issue> getIssuesInSquare(GetIssuesInSquareRequestDto requestDto) {
-        LocalDateTime fromDateTime = requestDto.getFrom() == null ? null : requestDto.getFrom().atStartOfDay();
-        LocalDateTime toDateTime = requestDto.getTo() == null ? null : requestDto.getTo().atStartOfDay();
+    /**
+     * Tells whether the square requested at the zoom is served as clusters instead of individual issues.
+     *
+     * @param zoom the map zoom, null for individual issues
+     * @return whether the issues are clustered
+     */
+    public boolean isClustered(Integer zoom) {
+        return zoom != null && zoom < mapPointsMinZoom;
+    }
 
-        int includeStatuses = requestDto.getStatuses() == null ? 0 : 1;
-        int includeCategories = requestDto.getCategories() == null ? 0 : 1;
+    /**
+     * Gets clusters of issues in the square. The square is divided into a grid
+     * of {@value #CLUSTER_CELLS_PER_TILE} x {@value #CLUSTER_CELLS_PER_TILE} cells per map tile of the zoom.
+     *
+     * @param requestDto the request dto
+     * @return the clusters
+     */
+    public List<IssueClusterResponseDto> getIssueClustersInSquare(GetIssuesInSquareRequestDto requestDto) {
+        IssueFilter filter = createSquareFilter(requestDto);
+        double cellSize = 360.0 / ((long) CLUSTER_CELLS_PER_TILE << requestDto.getZoom());
 
-        return issueRepository.findAllBySquare(
-                requestDto.getStatuses(),
-                requestDto.getCategories(),
+        return issueRepository.findClusters(filter,
                 requestDto.getMinLongitude(),
                 requestDto.getMinLatitude(),
                 requestDto.getMaxLongitude(),
                 requestDto.getMaxLatitude(),
-                fromDateTime,
-                toDateTime,
-                includeCategories,
-                includeStatuses);
+                cellSize);
+    }
+
+    /**
+     * Gets the vector tile of issues, rendered once per data version.
+     *
+     * @param z          the zoom
+     * @param x          the column
+     * @param y          the row
+     * @param statuses   the statuses
+     * @param categories the categories
+     * @param from       the from
+     * @param to         the to
+     * @return the tile
+     */
+    public IssueTileCache.Tile getIssuesTile(int z, int x, int y,
+                                             List<IssueStatus> statuses, List<Long> categories, LocalDate from, LocalDate to) {
+        if (z < 0 || z > 22 || x < 0 || y < 0 || x >= 1 << z || y >= 1 << z) {
+            throw new ValidationException("Tile coordinates are out of range.");
+        }
+
+        IssueFilter filter = createFilter(null, null, null, statuses, null, categories, from, to);
+        return issueTileCache.get(z, x, y, filter, () -> issueRepository.findTile(filter, z, x, y));
+    }
+
+    /**
+     * Streams only the coordinates of issues in the square to the consumer, at most the configured map result count.
+     * Rows go from the database cursor to the consumer, bypassing the map cache.
+     *
+     * @param requestDto the request dto
+     * @param consumer   the consumer
+     * @return whether the result was truncated
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean streamIssuesCoordinatesInSquare(
+            GetIssuesInSquareRequestDto requestDto, Consumer<CoordinatesResponseDto> consumer) {
+        return streamIssuesInSquare(requestDto, issue -> consumer.accept(new CoordinatesResponseDto(issue.getCoordinates())));
+    }
+
+    /**
+     * Streams the raw coordinates of issues in the square to the consumer, at most the configured map result count.
+     * Only the longitude and latitude columns are read, no geometry is built per row.
+     *
+     * @param requestDto the request dto
+     * @param consumer   the consumer
+     * @return whether the result was truncated
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean streamRawCoordinatesInSquare(
+            GetIssuesInSquareRequestDto requestDto, Consumer<IssueRepositoryCustom.Coordinates> consumer) {
+        Specification<Issue> spec = createSquareSpecification(createSquareFilter(requestDto), createSquare(requestDto));
+        return readOnlyTransaction.execute(status ->
+                consumeBounded(issueRepository.streamCoordinates(spec, mapFetchSize, mapMaxResults + 1), consumer));
     }
 
     public Page<Issue> getIssuesByHolder(
             String serviceUid, String departmentUid, String employeeUid,
             List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to, Pageable pageable) {
-        LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
-        LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
+        IssueFilter filter = createFilter(serviceUid, departmentUid, employeeUid, statuses, authorUid, categories, from, to);
+        Specification<Issue> spec = IssueSpecifications.matching(filter);
+
+        // The total is counted only when the page does not reveal it, and then served from the cache
+        List<Issue> issues = issueRepository.findSlice(spec, pageable).getContent();
+        return PageableExecutionUtils.getPage(issues, pageable,
+                () -> issueCountCache.get(filter, () -> issueRepository.count(spec)));
+    }
 
-        int includeStatuses = statuses == null ? 0 : 1;
-        int includeCategories = categories == null ? 0 : 1;
+    /**
+     * Gets a page of issues of the holder without the total count.
+     *
+     * @param serviceUid    the service uid
+     * @param departmentUid the department uid
+     * @param employeeUid   the employee uid
+     * @param statuses      the statuses
+     * @param authorUid     the author uid
+     * @param categories    the categories
+     * @param from          the from
+     * @param to            the to
+     * @param pageable      the pageable
+     * @return the slice of issues
+     */
+    public Slice<Issue> getIssuesByHolderSlice(
+            String serviceUid, String departmentUid, String employeeUid,
+            List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to, Pageable pageable) {
+        IssueFilter filter = createFilter(serviceUid, departmentUid, employeeUid, statuses, authorUid, categories, from, to);
+        return issueRepository.findSlice(IssueSpecifications.matching(filter), pageable);
+    }
 
-        return issueRepository.findAllByHolder(
-                serviceUid, departmentUid, employeeUid, statuses, authorUid, categories, fromDateTime, toDateTime, includeCategories, includeStatuses, pageable);
+    /**
+     * Gets issues after the cursor position (keyset pagination, no count query).
+     *
+     * @param statuses   the statuses
+     * @param authorUid  the author uid
+     * @param categories the categories
+     * @param from       the from
+     * @param to         the to
+     * @param cursor     the cursor, null for the first page
+     * @param order      the sort order
+     * @param size       the page size
+     * @return the slice of issues
+     */
+    public Slice<Issue> getIssuesAfter(
+            List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to,
+            IssueCursor cursor, Sort.Order order, int size) {
+        return getIssuesByHolderAfter(null, null, null, statuses, authorUid, categories, from, to, cursor, order, size);
+    }
+
+    /**
+     * Gets issues of the holder after the cursor position (keyset pagination, no count query).
+     *
+     * @param serviceUid    the service uid
+     * @param departmentUid the department uid
+     * @param employeeUid   the employee uid
+     * @param statuses      the statuses
+     * @param authorUid     the author uid
+     * @param categories    the categories
+     * @param from          the from
+     * @param to            the to
+     * @param cursor        the cursor, null for the first page
+     * @param order         the sort order
+     * @param size          the page size
+     * @return the slice of issues
+     */
+    public Slice<Issue> getIssuesByHolderAfter(
+            String serviceUid, String departmentUid, String employeeUid,
+            List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to,
+            IssueCursor cursor, Sort.Order order, int size) {
+        IssueFilter filter = createFilter(serviceUid, departmentUid, employeeUid, statuses, authorUid, categories, from, to);
+
+        // One extra row tells whether there is a next page
+        List<Issue> issues = issueRepository.findAllAfter(IssueSpecifications.matching(filter), cursor, order, size + 1);
+        boolean hasNext = issues.size() > size;
+
+        return new SliceImpl<>(hasNext ? issues.subList(0, size) : issues, PageRequest.ofSize(size), hasNext);
     }
 
     /**
@@ -134,7 +513,7 @@ public class IssueService {
      * @return the issue
      */
     public Issue findIssueById(Long id) {
-        return issueRepository.findById(id)
+        return issueRepository.findDetailById(id)
                 .orElseThrow(() -> new NotFoundException("Issue is not found."));
     }
 
@@ -149,6 +528,7 @@ public class IssueService {
 
         issue.setStatus(IssueStatus.PUBLISHED);
         issueRepository.save(issue);
+        eventPublisher.publishEvent(new IssueChangedEvent(issue));
 
         // Send notification
         ChangeIssueStatusNotificationDto statusChangeNotification = new ChangeIssueStatusNotificationDto();
@@ -170,6 +550,7 @@ public class IssueService {
 
         issue.setStatus(IssueStatus.DELETED);
         issueRepository.save(issue);
+        eventPublisher.publishEvent(new IssueChangedEvent(issue));
         ModerationResponse moderationResponse = new ModerationResponse();
         moderationResponse.setIssue(issue);
         moderationResponse.setModeratorUid(moderatorId);
@@ -213,6 +594,7 @@ public class IssueService {
         issue.setDescription(description);
         issue.setCategory(category);
         issue.setCoordinates(coordinates);
+        issue.setGeohash(Geohash.encode(coordinates, Geohash.MAX_PRECISION));
         issue.setAuthorUid(residentId);
         issue.setStatus(IssueStatus.MODERATION);
         issueRepository.save(issue);
@@ -225,6 +607,7 @@ public class IssueService {
         String storagePath = firebaseStorageUtil.uploadImage(photoFile, "issues/%s/".formatted(issue.getId()));
         issue.setPhoto(storagePath);
         issueRepository.save(issue);
+        eventPublisher.publishEvent(new IssueChangedEvent(issue));
     }
 
     /**
@@ -267,21 +650,12 @@ public class IssueService {
      */
     @Transactional
     public void likeIssue(Long issueId, String residentId) {
-        Issue issue = issueRepository.findById(issueId).orElseThrow(
-                () -> new NotFoundException("Issue is not found."));
-
-        if (issue.getStatus() == IssueStatus.MODERATION || issue.getStatus() == IssueStatus.DELETED) {
-            throw new IllegalStateException("You can't like this issue.");
-        }
-
-        if (likeRepository.getLikeStatus(issueId, residentId)) {
-            throw new IllegalStateException("You have already liked this issue.");
+        // Liking twice is a no-op, the issue is looked up only to explain a like that was not added
+        if (likeRepository.insertLike(issueId, residentId) == 0) {
+            checkLikeable(issueId, "You can't like this issue.");
+        } else {
+            eventPublisher.publishEvent(new IssueLikeChangedEvent(issueId, residentId, true, Instant.now()));
         }
-
-        Like like = new Like();
-        like.setIssue(issue);
-        like.setResidentUid(residentId);
-        likeRepository.save(like);
     }
 
     /**
@@ -292,19 +666,20 @@ public class IssueService {
      */
     @Transactional
     public void deleteLikeIssue(Long issueId, String residentId) {
-        Issue issue = issueRepository.findById(issueId).orElseThrow(
-                () -> new NotFoundException("Issue is not found."));
-
-        if (issue.getStatus() == IssueStatus.MODERATION || issue.getStatus() == IssueStatus.DELETED) {
-            throw new IllegalStateException("You can't unlike this issue.");
-        }
-
-        if (!likeRepository.getLikeStatus(issueId, residentId)) {
-            throw new IllegalStateException("There is no like on this issue.");
+        // The statement returns rows, so it runs as a query and the persistence context is synchronized here:
+        // pending changes are written before it and the issue whose like_count it changed is detached after it
+        entityManager.flush();
+        List<Double> removedLikeAges = likeRepository.deleteLike(issueId, residentId);
+        entityManager.clear();
+
+        // Unliking twice is a no-op, the issue is looked up only to explain a like that was not removed
+        if (removedLikeAges.isEmpty()) {
+            checkLikeable(issueId, "You can't unlike this issue.");
+        } else {
+            Double age = removedLikeAges.get(0);
+            Instant likedAt = age == null ? null : Instant.now().minusMillis((long) (age * 1000));
+            eventPublisher.publishEvent(new IssueLikeChangedEvent(issueId, residentId, false, likedAt));
         }
-
-        Like like = likeRepository.findByIssueIdAndResidentId(issueId, residentId);
-        likeRepository.delete(like);
     }
 
     /**
@@ -315,11 +690,43 @@ public class IssueService {
      * @return the like status
      */
     public Boolean getLikeStatus(Long id, String residentId) {
+        // A liked issue exists, the database is asked only to tell a missing issue from an unliked one
+        if (residentLikeCache.isLiked(residentId, id)) {
+            return true;
+        }
         if (!issueRepository.existsById(id)) {
             throw new NotFoundException("Issue is not found.");
         }
 
-        return likeRepository.getLikeStatus(id, residentId);
+        return false;
+    }
+
+    /**
+     * Gets which of the issues the resident likes, at most {@value #MAX_LIKED_LOOKUP} issues at once.
+     *
+     * @param issueIds   the issue ids
+     * @param residentId the resident id
+     * @return the ids of the liked issues
+     */
+    public Set<Long> getLikedIssueIds(List<Long> issueIds, String residentId) {
+        if (issueIds.size() > MAX_LIKED_LOOKUP) {
+            throw new ValidationException("At most %d issues can be looked up at once.".formatted(MAX_LIKED_LOOKUP));
+        }
+
+        LongPredicate liked = getLikedIssues(residentId);
+        return issueIds.stream()
+                .filter(liked::test)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Gets the test of whether the resident likes an issue, answered from memory.
+     *
+     * @param residentId the resident id
+     * @return the test taking the issue id
+     */
+    public LongPredicate getLikedIssues(String residentId) {
+        return residentLikeCache.get(residentId)::contains;
     }
 
     /**
@@ -329,34 +736,23 @@ public class IssueService {
      * @return the likes count
      */
     public Long getLikesCount(Long issueId) {
-        if (!issueRepository.existsById(issueId)) {
+        Long likeCount = issueLikeCounter.get(issueId);
+        if (likeCount == null) {
             throw new NotFoundException("Issue is not found.");
         }
 
-        return issueRepository.findLikeCountById(issueId);
+        return likeCount;
     }
 
     public Long getIssuesCount(List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to) {
-        LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
-        LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
-
-        int includeCategories = categories == null ? 0 : 1;
-        int includeStatuses = statuses == null ? 0 : 1;
-
-        return issueRepository.getIssuesCount(
-                statuses, authorUid, categories, fromDateTime, toDateTime, includeCategories, includeStatuses);
+        IssueFilter filter = createFilter(null, null, null, statuses, authorUid, categories, from, to);
+        return issueRepository.count(IssueSpecifications.matching(filter));
     }
 
     public Long getIssuesCountByHolder(String serviceUid, String departmentUid, String employeeUid,
                                        List<IssueStatus> statuses, String authorUid, List<Long> categories, LocalDate from, LocalDate to) {
-        LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
-        LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
-
-        int includeCategories = categories == null ? 0 : 1;
-        int includeStatuses = statuses == null ? 0 : 1;
-
-        return issueRepository.getIssuesCountByHolder(
-                serviceUid, departmentUid, employeeUid, statuses, authorUid, categories, fromDateTime, toDateTime, includeCategories, includeStatuses);
+        IssueFilter filter = createFilter(serviceUid, departmentUid, employeeUid, statuses, authorUid, categories, from, to);
+        return issueRepository.count(IssueSpecifications.matching(filter));
     }
 
     public ModerationResponse getModerationResponseByIssueId(Long issueId) {
@@ -367,14 +763,173 @@ public class IssueService {
         return moderationResponseRepository.getModerationResponseByIssueId(issueId);
     }
 
-    private String createCoordinatesString(Double latitude, Double longitude) {
-        if (latitude == null || longitude == null) {
-            return null;
+    private <T> boolean consumeBounded(Stream<T> rows, Consumer<T> consumer) {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            int count = 0;
+
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+
+                // The stream holds one row more than allowed, its presence means truncation
+                if (count++ == mapMaxResults) {
+                    return true;
+                }
+                consumer.accept(row);
+            }
+
+            return false;
+        }
+    }
+
+    // Collects an area query, null when it was truncated
+    private List<IssueShortResponseDto> collectBounded(Function<Consumer<IssueShortResponseDto>, Boolean> query) {
+        List<IssueShortResponseDto> issues = new ArrayList<>();
+        return query.apply(issues::add) ? null : issues;
+    }
+
+    private boolean findInRadius(IssueFilter filter, double distance, double latitude, double longitude,
+                                 Consumer<IssueShortResponseDto> consumer) {
+        if (issueSpatialIndex.covers(filter)) {
+            return issueSpatialIndex.findInRadius(filter, latitude, longitude, distance, mapMaxResults,
+                    issue -> consumer.accept(toShortResponseDto(issue)));
         }
 
-        GeometryFactory geometryFactory = new GeometryFactory();
-        Coordinate coordinate = new Coordinate(longitude, latitude);
-        Point coordinates = geometryFactory.createPoint(coordinate);
-        return String.format("POINT(%s %s)", coordinates.getX(), coordinates.getY());
+        Specification<Issue> spec = IssueSpecifications.matching(filter)
+                .and(IssueSpecifications.isWithinDistance(createPoint(latitude, longitude), distance));
+
+        return readOnlyTransaction.execute(status ->
+                consumeBounded(issueRepository.streamShort(spec, mapFetchSize, mapMaxResults + 1), consumer));
+    }
+
+    // Served from the spatial index when it covers the filter, or from the cached geohash cells when it is disabled
+    private boolean findInSquare(IssueFilter filter, Envelope square, Consumer<IssueShortResponseDto> consumer) {
+        if (issueSpatialIndex.covers(filter)) {
+            return issueSpatialIndex.findInSquare(filter,
+                    square.getMinX(), square.getMinY(), square.getMaxX(), square.getMaxY(),
+                    mapMaxResults, issue -> consumer.accept(toShortResponseDto(issue)));
+        }
+
+        if (issueCellCache != null) {
+            Boolean truncated = findInCells(filter, square, issue -> consumer.accept(toShortResponseDto(issue)));
+            if (truncated != null) {
+                return truncated;
+            }
+        }
+
+        return findInSquareInDatabase(filter, square, consumer);
+    }
+
+    // Served from the map cache, the snapped square is loaded by findInSquare
+    private boolean findInSquareCached(IssueFilter filter, Envelope square, Consumer<IssueShortResponseDto> consumer) {
+        List<IssueShortResponseDto> cached = issueMapCache.getInSquare(filter, square,
+                snapped -> collectBounded(issues -> findInSquare(filter, snapped, issues)));
+        if (cached != null) {
+            return consumeBounded(cached.stream(), consumer);
+        }
+
+        return findInSquare(filter, square, consumer);
+    }
+
+    private boolean findInSquareInDatabase(IssueFilter filter, Envelope square, Consumer<IssueShortResponseDto> consumer) {
+        Specification<Issue> spec = createSquareSpecification(filter, square);
+        return readOnlyTransaction.execute(status ->
+                consumeBounded(issueRepository.streamShort(spec, mapFetchSize, mapMaxResults + 1), consumer));
+    }
+
+    private static Specification<Issue> createSquareSpecification(IssueFilter filter, Envelope square) {
+        return IssueSpecifications.matching(filter).and(IssueSpecifications.isWithinSquare(
+                square.getMinX(), square.getMinY(), square.getMaxX(), square.getMaxY()));
+    }
+
+    // Answers the square from the cached geohash cells covering it, querying only the missing cells.
+    // Returns whether the result was truncated, or null when a cell holds too many issues to be used.
+    private Boolean findInCells(IssueFilter filter, Envelope square, Consumer<IndexedIssue> consumer) {
+        List<String> cells = Geohash.cover(
+                square.getMinX(), square.getMinY(), square.getMaxX(), square.getMaxY(), MAX_VIEWPORT_CELLS);
+        List<IssueCellCache.Cell> loaded = new ArrayList<>();
+
+        for (String cell : cells) {
+            IssueCellCache.Cell loadedCell = issueCellCache.get(cell, filter,
+                    () -> readOnlyTransaction.execute(status -> loadCell(filter, cell)));
+            if (!loadedCell.complete()) {
+                return null;
+            }
+            loaded.add(loadedCell);
+        }
+
+        int count = 0;
+
+        for (IssueCellCache.Cell cell : loaded) {
+            for (IndexedIssue issue : cell.issues()) {
+                if (square.covers(issue.coordinates().getCoordinate())) {
+                    if (count++ == mapMaxResults) {
+                        return true;
+                    }
+                    consumer.accept(issue);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private IssueCellCache.Cell loadCell(IssueFilter filter, String cell) {
+        Specification<Issue> spec = IssueSpecifications.matching(filter).and(IssueSpecifications.isInCell(cell));
+
+        try (Stream<IndexedIssue> rows = issueRepository.streamIndexed(spec, mapFetchSize)) {
+            List<IndexedIssue> issues = rows.limit(mapMaxResults + 1).toList();
+            return issues.size() > mapMaxResults
+                    ? new IssueCellCache.Cell(List.of(), false)
+                    : new IssueCellCache.Cell(issues, true);
+        }
+    }
+
+    private void checkLikeable(Long issueId, String message) {
+        IssueStatus status = issueRepository.findStatusById(issueId).orElseThrow(
+                () -> new NotFoundException("Issue is not found."));
+
+        if (status == IssueStatus.MODERATION || status == IssueStatus.DELETED) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private IssueDistanceResponseDto toDistanceResponseDto(IssueShortResponseDto issue, double distance) {
+        return new IssueDistanceResponseDto(issue.getId(), issue.getCoordinates(), issue.getTitle(),
+                issue.getCategoryId(), issue.getStatus(), distance);
+    }
+
+    private IssueShortResponseDto toShortResponseDto(IndexedIssue issue) {
+        return new IssueShortResponseDto(
+                issue.id(), issue.coordinates(), issue.title(), issue.categoryId(), issue.status());
+    }
+
+    private IssueFilter createSquareFilter(GetIssuesInSquareRequestDto requestDto) {
+        return createFilter(null, null, null, requestDto.getStatuses(), null,
+                requestDto.getCategories(), requestDto.getFrom(), requestDto.getTo());
+    }
+
+    private Envelope createSquare(GetIssuesInSquareRequestDto requestDto) {
+        return new Envelope(requestDto.getMinLongitude(), requestDto.getMaxLongitude(),
+                requestDto.getMinLatitude(), requestDto.getMaxLatitude());
+    }
+
+    private IssueFilter createFilter(String serviceUid, String departmentUid, String employeeUid,
+                                     List<IssueStatus> statuses, String authorUid, List<Long> categories,
+                                     LocalDate from, LocalDate to) {
+        IssueFilter filter = new IssueFilter();
+        filter.setServiceUid(serviceUid);
+        filter.setDepartmentUid(departmentUid);
+        filter.setEmployeeUid(employeeUid);
+        filter.setStatuses(statuses);
+        filter.setAuthorUid(authorUid);
+        filter.setCategories(categories);
+        filter.setFrom(from == null ? null : from.atStartOfDay());
+        filter.setTo(to == null ? null : to.atStartOfDay());
+        return filter;
+    }
+
+    private Point createPoint(double latitude, double longitude) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
     }
 }
@@ -5,14 +5,17 @@ import dev.mikita.issueservice.entity.Issue;
 import dev.mikita.issueservice.entity.IssueReservation;
 import dev.mikita.issueservice.entity.IssueSolution;
 import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.event.IssueChangedEvent;
 import dev.mikita.issueservice.exception.NotFoundException;
 import dev.mikita.issueservice.repository.IssueRepository;
 import dev.mikita.issueservice.repository.IssueReservationRepository;
 import dev.mikita.issueservice.repository.IssueSolutionRepository;
+import dev.mikita.issueservice.repository.specification.IssueSolutionSpecifications;
 import dev.mikita.issueservice.util.FirebaseStorageUtil;
 import jakarta.security.auth.message.AuthException;
 import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -36,6 +39,7 @@ public class IssueSolutionService {
     private final FirebaseStorageUtil firebaseStorageUtil;
 
     private final KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String STATUS_CHANGE_TOPIC = "notifications";
 
     /**
@@ -46,18 +50,21 @@ public class IssueSolutionService {
      * @param issueRepository            the issue repository
      * @param firebaseStorageUtil        the firebase storage util
      * @param kafkaTemplate              the kafka template
+     * @param eventPublisher             the event publisher
      */
     @Autowired
     public IssueSolutionService(IssueSolutionRepository issueSolutionRepository,
                                 IssueReservationRepository issueReservationRepository,
                                 IssueRepository issueRepository,
                                 FirebaseStorageUtil firebaseStorageUtil,
-                                KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate) {
+                                KafkaTemplate<String, ChangeIssueStatusNotificationDto> kafkaTemplate,
+                                ApplicationEventPublisher eventPublisher) {
         this.issueSolutionRepository = issueSolutionRepository;
         this.issueReservationRepository = issueReservationRepository;
         this.issueRepository = issueRepository;
         this.firebaseStorageUtil = firebaseStorageUtil;
         this.kafkaTemplate = kafkaTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -109,6 +116,7 @@ public class IssueSolutionService {
         String storagePath = firebaseStorageUtil.uploadImage(photoFile, "issues/%s/".formatted(issue.getId()));
         issueSolution.setPhoto(storagePath);
         issueSolutionRepository.save(issueSolution);
+        eventPublisher.publishEvent(new IssueChangedEvent(issue));
 
         // Send notification
         ChangeIssueStatusNotificationDto notificationDto = new ChangeIssueStatusNotificationDto();
@@ -124,10 +132,8 @@ public class IssueSolutionService {
         LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
         LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
 
-        int includeCategories = categories == null ? 0 : 1;
-
-        return issueSolutionRepository.getIssuesSolutions(
-                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime, includeCategories, pageable);
+        return issueSolutionRepository.findAll(IssueSolutionSpecifications.matching(
+                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime), pageable);
     }
 
     public Long getIssuesSolutionsCount(
@@ -135,10 +141,8 @@ public class IssueSolutionService {
         LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
         LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
 
-        int includeCategories = categories == null ? 0 : 1;
-
-        return issueSolutionRepository.getIssuesSolutionsCount(
-                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime, includeCategories);
+        return issueSolutionRepository.count(IssueSolutionSpecifications.matching(
+                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime));
     }
 
     public Double getAverageSolutionsTime(
@@ -146,10 +150,8 @@ public class IssueSolutionService {
         LocalDateTime fromDateTime = from == null ? null : from.atStartOfDay();
         LocalDateTime toDateTime = to == null ? null : to.atStartOfDay();
 
-        int includeCategories = categories == null ? 0 : 1;
-
-        Double result = issueSolutionRepository.getAverageSolutionsTime(
-                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime, includeCategories);
+        Double result = issueSolutionRepository.getAverageSolutionsTime(IssueSolutionSpecifications.matching(
+                serviceId, employeeId, departmentId, categories, fromDateTime, toDateTime));
 
         return result == null ? 0 : result;
     }
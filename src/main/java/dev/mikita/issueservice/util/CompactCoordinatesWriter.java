@@ -0,0 +1,84 @@
+package dev.mikita.issueservice.util;
+
+import org.locationtech.jts.geom.Point;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Writes coordinates in the compact binary map format.
+ * <p>
+ * The frame starts with the number of points as a big-endian int32 and a flags byte,
+ * bit 0 telling whether the result was truncated. Each point follows as the difference
+ * of its latitude and longitude, in 1e-7 degrees, from the previous point (zero for the first),
+ * each a zigzag-encoded base-128 varint. Nearby points take about 6 bytes.
+ */
+public class CompactCoordinatesWriter {
+    /**
+     * Media type of the format.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.issues.coordinates";
+
+    private static final double SCALE = 1e7;
+
+    private final ByteArrayOutputStream points = new ByteArrayOutputStream();
+    private int count;
+    private long latitude;
+    private long longitude;
+
+    /**
+     * Appends the point.
+     *
+     * @param point the point, x is the longitude and y the latitude
+     */
+    public void write(Point point) {
+        write(point.getX(), point.getY());
+    }
+
+    /**
+     * Appends the point given by its raw coordinates.
+     *
+     * @param longitude the longitude
+     * @param latitude  the latitude
+     */
+    public void write(double longitude, double latitude) {
+        long pointLatitude = Math.round(latitude * SCALE);
+        long pointLongitude = Math.round(longitude * SCALE);
+
+        writeVarint(zigzag(pointLatitude - this.latitude));
+        writeVarint(zigzag(pointLongitude - this.longitude));
+
+        this.latitude = pointLatitude;
+        this.longitude = pointLongitude;
+        count++;
+    }
+
+    /**
+     * Completes the frame.
+     *
+     * @param truncated whether the result was truncated
+     * @return the frame
+     */
+    public byte[] toByteArray(boolean truncated) {
+        byte[] body = points.toByteArray();
+        byte[] frame = new byte[5 + body.length];
+
+        frame[0] = (byte) (count >>> 24);
+        frame[1] = (byte) (count >>> 16);
+        frame[2] = (byte) (count >>> 8);
+        frame[3] = (byte) count;
+        frame[4] = (byte) (truncated ? 1 : 0);
+        System.arraycopy(body, 0, frame, 5, body.length);
+        return frame;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            points.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        points.write((int) value);
+    }
+}
@@ -0,0 +1,144 @@
+package dev.mikita.issueservice.util;
+
+import org.locationtech.jts.geom.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash encoding. A geohash names a cell of a hierarchical grid,
+ * every prefix of it names the enclosing cell of a lower precision.
+ */
+public final class Geohash {
+    /**
+     * Precision of the geohash stored for every issue.
+     */
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    // The finest cells used to cover a viewport, about 38 x 19 meters
+    private static final int MAX_COVER_PRECISION = 8;
+
+    private Geohash() {}
+
+    /**
+     * Encodes the point.
+     *
+     * @param point     the point, x is the longitude and y the latitude
+     * @param precision the number of characters
+     * @return the geohash
+     */
+    public static String encode(Point point, int precision) {
+        return encode(point.getY(), point.getX(), precision);
+    }
+
+    /**
+     * Encodes the coordinates.
+     *
+     * @param latitude  the latitude
+     * @param longitude the longitude
+     * @param precision the number of characters
+     * @return the geohash
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90, maxLatitude = 90;
+        double minLongitude = -180, maxLongitude = 180;
+        StringBuilder geohash = new StringBuilder(precision);
+        boolean longitudeBit = true;
+        int bits = 0;
+        int character = 0;
+
+        while (geohash.length() < precision) {
+            if (longitudeBit) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                if (longitude >= middle) {
+                    character = character << 1 | 1;
+                    minLongitude = middle;
+                } else {
+                    character <<= 1;
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                if (latitude >= middle) {
+                    character = character << 1 | 1;
+                    minLatitude = middle;
+                } else {
+                    character <<= 1;
+                    maxLatitude = middle;
+                }
+            }
+
+            longitudeBit = !longitudeBit;
+            if (++bits == 5) {
+                geohash.append(BASE32.charAt(character));
+                bits = 0;
+                character = 0;
+            }
+        }
+
+        return geohash.toString();
+    }
+
+    /**
+     * Finds the cells covering the square, of the finest precision that needs at most the given number of cells.
+     * A single-character precision is used when no finer one fits.
+     *
+     * @param minLongitude the min longitude
+     * @param minLatitude  the min latitude
+     * @param maxLongitude the max longitude
+     * @param maxLatitude  the max latitude
+     * @param maxCells     the maximum number of cells
+     * @return the geohashes of the cells
+     */
+    public static List<String> cover(double minLongitude, double minLatitude,
+                                     double maxLongitude, double maxLatitude, int maxCells) {
+        int precision = MAX_COVER_PRECISION;
+        while (precision > 1 && countCells(minLongitude, minLatitude, maxLongitude, maxLatitude, precision) > maxCells) {
+            precision--;
+        }
+
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        List<String> cells = new ArrayList<>();
+
+        for (long column = column(minLongitude, precision); column <= column(maxLongitude, precision); column++) {
+            for (long row = row(minLatitude, precision); row <= row(maxLatitude, precision); row++) {
+                cells.add(encode(-90 + (row + 0.5) * height, -180 + (column + 0.5) * width, precision));
+            }
+        }
+
+        return cells;
+    }
+
+    private static long countCells(double minLongitude, double minLatitude,
+                                   double maxLongitude, double maxLatitude, int precision) {
+        return (column(maxLongitude, precision) - column(minLongitude, precision) + 1)
+                * (row(maxLatitude, precision) - row(minLatitude, precision) + 1);
+    }
+
+    private static long column(double longitude, int precision) {
+        long columns = 1L << longitudeBits(precision);
+        return Math.max(0, Math.min(columns - 1, (long) Math.floor((longitude + 180) / cellWidth(precision))));
+    }
+
+    private static long row(double latitude, int precision) {
+        long rows = 1L << latitudeBits(precision);
+        return Math.max(0, Math.min(rows - 1, (long) Math.floor((latitude + 90) / cellHeight(precision))));
+    }
+
+    private static double cellWidth(int precision) {
+        return 360.0 / (1L << longitudeBits(precision));
+    }
+
+    private static double cellHeight(int precision) {
+        return 180.0 / (1L << latitudeBits(precision));
+    }
+
+    private static int longitudeBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+
+    private static int latitudeBits(int precision) {
+        return 5 * precision / 2;
+    }
+}
@@ -0,0 +1,124 @@
+package dev.mikita.issueservice.util;
+
+import dev.mikita.issueservice.dto.response.common.IssueDistanceResponseDto;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated issue listing.
+ * Holds the sort key and the id of the last issue of the previous page.
+ */
+public class IssueCursor {
+    /**
+     * Sort field name of listings ordered by the distance from a point.
+     */
+    public static final String DISTANCE = "distance";
+
+    private final String fieldName;
+    private final Long id;
+    private final String value;
+
+    /**
+     * Instantiates a new Issue cursor.
+     *
+     * @param fieldName the sort field name
+     * @param id        the id of the last issue
+     * @param value     the sort key of the last issue
+     */
+    public IssueCursor(String fieldName, Long id, String value) {
+        this.fieldName = fieldName;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Creates the cursor pointing right after the given issue.
+     *
+     * @param issue     the last issue of the page
+     * @param fieldName the sort field name
+     * @return the issue cursor
+     */
+    public static IssueCursor of(Issue issue, String fieldName) {
+        String value = switch (fieldName) {
+            case "creationDate" -> issue.getCreationDate().toString();
+            case "status" -> issue.getStatus().name();
+            case "title" -> issue.getTitle();
+            case "category" -> issue.getCategory().getId().toString();
+            case "likeCount" -> String.valueOf(issue.getLikeCount());
+            default -> throw new ValidationException("Cursor pagination is not supported for this ordering.");
+        };
+
+        return new IssueCursor(fieldName, issue.getId(), value);
+    }
+
+    /**
+     * Creates the cursor pointing right after the given issue of a distance-ordered listing.
+     *
+     * @param issue the last issue of the page
+     * @return the issue cursor
+     */
+    public static IssueCursor of(IssueDistanceResponseDto issue) {
+        return new IssueCursor(DISTANCE, issue.getId(), issue.getDistance().toString());
+    }
+
+    /**
+     * Decodes the cursor received from a client.
+     *
+     * @param cursor the encoded cursor, empty for the first page
+     * @return the issue cursor or null for the first page
+     */
+    public static IssueCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 3);
+            return new IssueCursor(parts[0], Long.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    /**
+     * Encodes the cursor for a client.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = fieldName + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the distance of a distance-ordered cursor.
+     *
+     * @return the distance in meters
+     */
+    public double getDistance() {
+        if (!DISTANCE.equals(fieldName)) {
+            throw new ValidationException("Cursor does not match the requested ordering.");
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
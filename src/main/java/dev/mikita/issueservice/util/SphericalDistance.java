@@ -0,0 +1,32 @@
+package dev.mikita.issueservice.util;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Great-circle distances on the mean earth sphere. Within about 0.3% of
+ * the spheroidal distances PostGIS computes for geography values.
+ */
+public final class SphericalDistance {
+    /**
+     * Mean earth radius in meters.
+     */
+    public static final double EARTH_RADIUS = 6_371_008.8;
+
+    private SphericalDistance() {}
+
+    /**
+     * Computes the haversine distance between two points.
+     *
+     * @param from the first point, x is the longitude and y the latitude
+     * @param to   the second point, x is the longitude and y the latitude
+     * @return the distance in meters
+     */
+    public static double between(Coordinate from, Coordinate to) {
+        double latitudeDelta = Math.toRadians(to.y - from.y);
+        double longitudeDelta = Math.toRadians(to.x - from.x);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(from.y)) * Math.cos(Math.toRadians(to.y))
+                * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,12 @@
+-- GiST indexes are not expressible through JPA index metadata, they are created after the schema update
+CREATE INDEX IF NOT EXISTS idx_issue_coordinates_gist ON bc_issue USING GIST (coordinates);
+CREATE INDEX IF NOT EXISTS idx_issue_location_gist ON bc_issue USING GIST (location);
+-- Prefix lookups of geohash cells, independent of the database collation
+CREATE INDEX IF NOT EXISTS idx_issue_geohash ON bc_issue (geohash varchar_pattern_ops);
+-- Issues created before the geohash column existed
+UPDATE bc_issue SET geohash = ST_GeoHash(location, 12) WHERE geohash IS NULL;
+-- Range scans of recent likes for the trending ranking
+CREATE INDEX IF NOT EXISTS idx_like_creation_date ON bc_like (creation_date);
+-- Issues liked before the like_count column existed, the like statements keep it exact afterwards
+UPDATE bc_issue i SET like_count = (SELECT COUNT(*) FROM bc_like l WHERE l.issue_id = i.id)
+WHERE i.like_count = 0 AND EXISTS (SELECT 1 FROM bc_like l WHERE l.issue_id = i.id);
@@ -0,0 +1,177 @@
+package dev.mikita.issueservice.auth;
+
+import dev.mikita.issueservice.annotation.FirebaseAuthorization;
+import dev.mikita.issueservice.cache.FirebaseTokenCache;
+import dev.mikita.issueservice.entity.UserRole;
+import dev.mikita.issueservice.entity.UserStatus;
+import jakarta.security.auth.message.AuthException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type Firebase authorization interceptor tests, with the token verification stubbed.
+ */
+class FirebaseAuthorizationInterceptorTest {
+    private static final String TOKEN = "token";
+
+    private final FirebaseTokenCache firebaseTokenCache = mock(FirebaseTokenCache.class);
+    private final FirebaseAuthorizationInterceptor interceptor = new FirebaseAuthorizationInterceptor(firebaseTokenCache);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    static class Handlers {
+        public void open() {
+        }
+
+        @FirebaseAuthorization
+        public void authenticated() {
+        }
+
+        @FirebaseAuthorization(roles = {"MODERATOR", "ADMIN"}, statuses = {"ACTIVE"})
+        public void moderated() {
+        }
+
+        @FirebaseAuthorization(roles = {"OWNER"})
+        public void unknownRole() {
+        }
+    }
+
+    /**
+     * Descriptor holds the annotated roles and statuses.
+     */
+    @Test
+    void compilesAnnotation() throws Exception {
+        AuthorizationDescriptor descriptor = AuthorizationDescriptor.of(annotation("moderated"));
+
+        assertEquals(Set.of(UserRole.MODERATOR, UserRole.ADMIN), descriptor.roles());
+        assertEquals(Set.of(UserStatus.ACTIVE), descriptor.statuses());
+    }
+
+    /**
+     * Descriptor rejects an annotation naming an unknown role.
+     */
+    @Test
+    void rejectsUnknownRole() throws Exception {
+        FirebaseAuthorization annotation = annotation("unknownRole");
+
+        assertThrows(IllegalArgumentException.class, () -> AuthorizationDescriptor.of(annotation));
+    }
+
+    /**
+     * Descriptor permits the listed roles and statuses only, empty sets permit any value.
+     */
+    @Test
+    void permitsListedValues() throws Exception {
+        AuthorizationDescriptor moderated = AuthorizationDescriptor.of(annotation("moderated"));
+        AuthorizationDescriptor authenticated = AuthorizationDescriptor.of(annotation("authenticated"));
+
+        assertTrue(moderated.permits(UserRole.ADMIN, UserStatus.ACTIVE));
+        assertFalse(moderated.permits(UserRole.RESIDENT, UserStatus.ACTIVE));
+        assertFalse(moderated.permits(UserRole.ADMIN, UserStatus.BANNED));
+        assertFalse(moderated.permits(null, null));
+        assertTrue(authenticated.permits(null, null));
+    }
+
+    /**
+     * Handler without the annotation passes without a token.
+     */
+    @Test
+    void passesUnannotatedHandler() throws Exception {
+        assertTrue(interceptor.preHandle(request, response, handler("open")));
+        assertNull(FirebasePrincipal.of(request));
+        verifyNoInteractions(firebaseTokenCache);
+    }
+
+    /**
+     * Request without the authorization header is rejected.
+     */
+    @Test
+    void rejectsMissingHeader() {
+        assertThrows(AuthException.class, () -> interceptor.preHandle(request, response, handler("authenticated")));
+    }
+
+    /**
+     * Request with another authorization scheme is rejected.
+     */
+    @Test
+    void rejectsNonBearerHeader() {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic " + TOKEN);
+
+        assertThrows(AuthException.class, () -> interceptor.preHandle(request, response, handler("authenticated")));
+        verifyNoInteractions(firebaseTokenCache);
+    }
+
+    /**
+     * User with a role the handler does not accept is rejected.
+     */
+    @Test
+    void rejectsRoleMismatch() throws Exception {
+        authorize("RESIDENT", "ACTIVE");
+
+        assertThrows(AuthException.class, () -> interceptor.preHandle(request, response, handler("moderated")));
+        assertNull(FirebasePrincipal.of(request));
+    }
+
+    /**
+     * User with a status the handler does not accept is rejected.
+     */
+    @Test
+    void rejectsStatusMismatch() throws Exception {
+        authorize("ADMIN", "BANNED");
+
+        assertThrows(AuthException.class, () -> interceptor.preHandle(request, response, handler("moderated")));
+    }
+
+    /**
+     * Authorized user is stored on the request with its claims.
+     */
+    @Test
+    void storesPrincipal() throws Exception {
+        FirebasePrincipal verified = authorize("MODERATOR", "ACTIVE");
+
+        assertTrue(interceptor.preHandle(request, response, handler("moderated")));
+
+        FirebasePrincipal principal = FirebasePrincipal.of(request);
+        assertSame(verified, principal);
+        assertEquals("user-uid", principal.uid());
+        assertEquals(UserRole.MODERATOR, principal.role());
+        assertEquals(UserStatus.ACTIVE, principal.status());
+        assertEquals("MODERATOR", principal.claim("role"));
+    }
+
+    private FirebasePrincipal authorize(String role, String status) throws Exception {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "user-uid");
+        claims.put("role", role);
+        claims.put("status", status);
+        FirebasePrincipal principal = FirebasePrincipal.of("user-uid", claims);
+
+        when(firebaseTokenCache.verify(TOKEN)).thenReturn(principal);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN);
+        return principal;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), name);
+    }
+
+    private static FirebaseAuthorization annotation(String name) throws NoSuchMethodException {
+        return Handlers.class.getMethod(name).getAnnotation(FirebaseAuthorization.class);
+    }
+}
@@ -0,0 +1,177 @@
+package dev.mikita.issueservice.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.mikita.issueservice.entity.UserRole;
+import dev.mikita.issueservice.entity.UserStatus;
+import jakarta.security.auth.message.AuthException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The type Local firebase token verifier tests, signing tokens with a local key pair.
+ */
+class LocalFirebaseTokenVerifierTest {
+    private static final String PROJECT_ID = "test-project";
+    private static final String KEY_ID = "test-key";
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private static KeyPair keyPair;
+    private static KeyPair otherKeyPair;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalFirebaseTokenVerifier verifier = new LocalFirebaseTokenVerifier(PROJECT_ID,
+            keyId -> KEY_ID.equals(keyId) ? keyPair.getPublic() : null, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        otherKeyPair = generator.generateKeyPair();
+    }
+
+    /**
+     * Valid token is verified with its claims.
+     */
+    @Test
+    void verifiesValidToken() throws Exception {
+        FirebasePrincipal principal = verifier.verify(sign(header(), claims(), keyPair));
+
+        assertEquals("resident-uid", principal.uid());
+        assertEquals(UserRole.RESIDENT, principal.role());
+        assertEquals(UserStatus.ACTIVE, principal.status());
+    }
+
+    /**
+     * Token signed by another key is rejected.
+     */
+    @Test
+    void rejectsForeignSignature() {
+        assertThrows(AuthException.class, () -> verifier.verify(sign(header(), claims(), otherKeyPair)));
+    }
+
+    /**
+     * Token with modified claims is rejected.
+     */
+    @Test
+    void rejectsTamperedClaims() throws Exception {
+        String[] parts = sign(header(), claims(), keyPair).split("\\.");
+        Map<String, Object> claims = claims();
+        claims.put("role", "EMPLOYEE");
+        String tampered = parts[0] + "." + encode(claims) + "." + parts[2];
+
+        assertThrows(AuthException.class, () -> verifier.verify(tampered));
+    }
+
+    /**
+     * Token naming an unknown key is rejected.
+     */
+    @Test
+    void rejectsUnknownKey() {
+        Map<String, Object> header = header();
+        header.put("kid", "other-key");
+
+        assertThrows(AuthException.class, () -> verifier.verify(sign(header, claims(), keyPair)));
+    }
+
+    /**
+     * Unsigned token is rejected.
+     */
+    @Test
+    void rejectsUnsignedToken() throws Exception {
+        Map<String, Object> header = header();
+        header.put("alg", "none");
+        String unsigned = encode(header) + "." + encode(claims()) + ".";
+
+        assertThrows(AuthException.class, () -> verifier.verify(unsigned));
+    }
+
+    /**
+     * Token of another project is rejected.
+     */
+    @Test
+    void rejectsOtherAudience() {
+        Map<String, Object> claims = claims();
+        claims.put("aud", "other-project");
+
+        assertThrows(AuthException.class, () -> verifier.verify(sign(header(), claims, keyPair)));
+    }
+
+    /**
+     * Token of another issuer is rejected.
+     */
+    @Test
+    void rejectsOtherIssuer() {
+        Map<String, Object> claims = claims();
+        claims.put("iss", "https://securetoken.google.com/other-project");
+
+        assertThrows(AuthException.class, () -> verifier.verify(sign(header(), claims, keyPair)));
+    }
+
+    /**
+     * Expired token is rejected.
+     */
+    @Test
+    void rejectsExpiredToken() {
+        Map<String, Object> claims = claims();
+        claims.put("iat", NOW.minusSeconds(7200).getEpochSecond());
+        claims.put("exp", NOW.minusSeconds(3600).getEpochSecond());
+
+        assertThrows(AuthException.class, () -> verifier.verify(sign(header(), claims, keyPair)));
+    }
+
+    /**
+     * Malformed token is rejected.
+     */
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(AuthException.class, () -> verifier.verify("not-a-token"));
+        assertThrows(AuthException.class, () -> verifier.verify("a.b.c"));
+    }
+
+    private Map<String, Object> header() {
+        Map<String, Object> header = new HashMap<>();
+        header.put("alg", "RS256");
+        header.put("kid", KEY_ID);
+        header.put("typ", "JWT");
+        return header;
+    }
+
+    private Map<String, Object> claims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("iss", "https://securetoken.google.com/" + PROJECT_ID);
+        claims.put("aud", PROJECT_ID);
+        claims.put("sub", "resident-uid");
+        claims.put("iat", NOW.minusSeconds(60).getEpochSecond());
+        claims.put("exp", NOW.plusSeconds(3540).getEpochSecond());
+        claims.put("role", "RESIDENT");
+        claims.put("status", "ACTIVE");
+        return claims;
+    }
+
+    private String sign(Map<String, Object> header, Map<String, Object> claims, KeyPair signingKeyPair)
+            throws Exception {
+        String content = encode(header) + "." + encode(claims);
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(signingKeyPair.getPrivate());
+        signature.update(content.getBytes(StandardCharsets.US_ASCII));
+        return content + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private String encode(Map<String, Object> json) throws Exception {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(json));
+    }
+}
@@ -0,0 +1,138 @@
+package dev.mikita.issueservice.cache;
+
+import dev.mikita.issueservice.dto.response.common.IssueShortResponseDto;
+import dev.mikita.issueservice.entity.Category;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.repository.filter.IssueFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The type Issue map cache tests, checking the square snapping and sharing of entries.
+ */
+class IssueMapCacheTest {
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private final IssueMapCache cache = new IssueMapCache(Duration.ofMinutes(5), 10_000, new SimpleMeterRegistry());
+    private final List<Envelope> loaded = new ArrayList<>();
+    private final Function<Envelope, List<IssueShortResponseDto>> loader = square -> {
+        loaded.add(square);
+        return List.of(issue(1L, 14.391, 50.047), issue(2L, 14.42, 50.07), issue(3L, 14.452, 50.108));
+    };
+
+    /**
+     * Square is snapped outwards to the grid step of a quarter of its span, a power of two.
+     */
+    @Test
+    void snapsSquareToGrid() {
+        cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+
+        double step = 1.0 / 64;
+        assertEquals(List.of(new Envelope(921 * step, 925 * step, 3203 * step, 3207 * step)), loaded);
+    }
+
+    /**
+     * Result is cut to the requested square.
+     */
+    @Test
+    void cutsResultToSquare() {
+        List<IssueShortResponseDto> issues = cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+
+        assertEquals(List.of(2L), issues.stream().map(IssueShortResponseDto::getId).toList());
+    }
+
+    /**
+     * Nearby squares with an equal filter share the entry.
+     */
+    @Test
+    void sharesEntryOfNearbySquare() {
+        cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+        List<IssueShortResponseDto> issues = cache.getInSquare(filter(), new Envelope(14.3907, 14.4407, 50.047, 50.097), loader);
+
+        assertEquals(1, loaded.size());
+        assertEquals(List.of(1L, 2L), issues.stream().map(IssueShortResponseDto::getId).toList());
+    }
+
+    /**
+     * Squares with different filters or of another snapped size do not share the entry.
+     */
+    @Test
+    void separatesDifferentKeys() {
+        IssueFilter other = filter();
+        other.setCategories(List.of(1L));
+
+        cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+        cache.getInSquare(other, new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+        cache.getInSquare(filter(), new Envelope(14.40, 14.50, 50.05, 50.15), loader);
+
+        assertEquals(3, loaded.size());
+    }
+
+    /**
+     * Truncated result is not cached.
+     */
+    @Test
+    void skipsTruncatedResult() {
+        Function<Envelope, List<IssueShortResponseDto>> truncated = square -> {
+            loaded.add(square);
+            return null;
+        };
+
+        assertNull(cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), truncated));
+        assertNull(cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), truncated));
+        assertEquals(2, loaded.size());
+    }
+
+    /**
+     * Issue change evicts the entries containing the issue only.
+     */
+    @Test
+    void evictsEntriesContainingChange() {
+        cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+        cache.getInSquare(filter(), new Envelope(16.40, 16.45, 49.05, 49.10), loader);
+
+        cache.onIssueChanged(changed(14.43, 50.06));
+        cache.getInSquare(filter(), new Envelope(14.40, 14.45, 50.05, 50.10), loader);
+        cache.getInSquare(filter(), new Envelope(16.40, 16.45, 49.05, 49.10), loader);
+
+        assertEquals(3, loaded.size());
+    }
+
+    private static IssueFilter filter() {
+        IssueFilter filter = new IssueFilter();
+        filter.setStatuses(List.of(IssueStatus.PUBLISHED));
+        return filter;
+    }
+
+    private static IssueShortResponseDto issue(Long id, double longitude, double latitude) {
+        return new IssueShortResponseDto(id, point(longitude, latitude), "Issue " + id, 1L, IssueStatus.PUBLISHED);
+    }
+
+    private static IssueChangedEvent changed(double longitude, double latitude) {
+        Category category = new Category();
+        category.setId(1L);
+        Issue issue = new Issue();
+        issue.setId(4L);
+        issue.setCoordinates(point(longitude, latitude));
+        issue.setCategory(category);
+        issue.setStatus(IssueStatus.PUBLISHED);
+        return new IssueChangedEvent(issue);
+    }
+
+    private static Point point(double longitude, double latitude) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
+    }
+}
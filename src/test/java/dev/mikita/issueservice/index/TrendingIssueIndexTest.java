@@ -0,0 +1,299 @@
+package dev.mikita.issueservice.index;
+
+import dev.mikita.issueservice.dto.response.common.IssueTrendingResponseDto;
+import dev.mikita.issueservice.entity.Category;
+import dev.mikita.issueservice.entity.Issue;
+import dev.mikita.issueservice.entity.IssueStatus;
+import dev.mikita.issueservice.event.IssueChangedEvent;
+import dev.mikita.issueservice.event.IssueLikeChangedEvent;
+import dev.mikita.issueservice.repository.IssueRepository;
+import dev.mikita.issueservice.repository.LikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type Trending issue index tests, checking the heap against a plain sort of the decayed like weights.
+ */
+class TrendingIssueIndexTest {
+    private static final Duration HALF_LIFE = Duration.ofHours(6);
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T12:00:00Z"));
+    private final IssueRepository issueRepository = mock(IssueRepository.class);
+    private final LikeRepository likeRepository = mock(LikeRepository.class);
+
+    @BeforeEach
+    void stubIssues() {
+        when(issueRepository.findIndexedByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> issueIds = invocation.getArgument(0);
+            return issueIds.stream().map(TrendingIssueIndexTest::issue).toList();
+        });
+    }
+
+    /**
+     * Random likes and unlikes over time rank the issues like a plain sort of their decayed likes.
+     */
+    @Test
+    void matchesPlainSort() {
+        TrendingIssueIndex index = index(100);
+        Map<Long, List<Instant>> likes = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            clock.advance(Duration.ofMinutes(random.nextInt(10)));
+            long issueId = 1 + random.nextInt(50);
+            List<Instant> issueLikes = likes.computeIfAbsent(issueId, id -> new ArrayList<>());
+            if (!issueLikes.isEmpty() && random.nextInt(4) == 0) {
+                Instant likedAt = issueLikes.remove(random.nextInt(issueLikes.size()));
+                index.onLikeChanged(new IssueLikeChangedEvent(issueId, "resident", false, likedAt));
+            } else {
+                issueLikes.add(clock.instant());
+                index.onLikeChanged(new IssueLikeChangedEvent(issueId, "resident", true, clock.instant()));
+            }
+        }
+
+        Map<Long, Double> expected = new HashMap<>();
+        likes.forEach((issueId, issueLikes) -> expected.put(issueId, issueLikes.stream()
+                .mapToDouble(this::decayed).sum()));
+        List<Long> expectedTop = expected.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<IssueTrendingResponseDto> top = index.findTop(null, null, 10);
+
+        assertEquals(expectedTop, top.stream().map(IssueTrendingResponseDto::getId).toList());
+        for (IssueTrendingResponseDto issue : top) {
+            assertEquals(expected.get(issue.getId()), issue.getScore(), 1e-9);
+        }
+    }
+
+    /**
+     * Like made one half-life ago weighs half of a new like.
+     */
+    @Test
+    void decaysByHalfLife() {
+        TrendingIssueIndex index = index(10);
+        like(index, 1L);
+        clock.advance(HALF_LIFE);
+
+        assertEquals(0.5, index.findTop(null, null, 1).get(0).getScore(), 1e-9);
+    }
+
+    /**
+     * Unliking an old like takes away its decayed weight only, the recent likes keep theirs.
+     */
+    @Test
+    void unlikeRemovesOwnWeight() {
+        TrendingIssueIndex index = index(10);
+        Instant oldLike = clock.instant();
+        like(index, 1L);
+        clock.advance(HALF_LIFE.multipliedBy(3));
+        like(index, 1L);
+        like(index, 1L);
+
+        index.onLikeChanged(new IssueLikeChangedEvent(1L, "resident", false, oldLike));
+
+        assertEquals(2, index.findTop(null, null, 1).get(0).getScore(), 1e-9);
+    }
+
+    /**
+     * Full index replaces the lowest scored issue by a higher scored one and ignores lower ones.
+     */
+    @Test
+    void evictsLowestAtCapacity() {
+        TrendingIssueIndex index = index(2);
+        like(index, 1L);
+        like(index, 1L);
+        like(index, 2L);
+        clock.advance(Duration.ofHours(1));
+        like(index, 3L);
+
+        assertEquals(List.of(1L, 3L), ids(index.findTop(null, null, 10)));
+
+        clock.advance(HALF_LIFE.multipliedBy(10));
+        like(index, 4L);
+        like(index, 4L);
+        like(index, 5L);
+
+        assertEquals(List.of(4L, 5L), ids(index.findTop(null, null, 10)));
+    }
+
+    /**
+     * Unranked issue collects its likes while the ranking is full and enters it once they outscore the lowest issue.
+     */
+    @Test
+    void admitsRisingIssueToFullRanking() {
+        TrendingIssueIndex index = index(2);
+        for (int i = 0; i < 3; i++) {
+            like(index, 1L);
+            like(index, 2L);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            like(index, 3L);
+            assertFalse(ids(index.findTop(null, null, 10)).contains(3L));
+        }
+        like(index, 3L);
+
+        List<IssueTrendingResponseDto> top = index.findTop(null, null, 10);
+        assertEquals(3L, top.get(0).getId());
+        assertEquals(4, top.get(0).getScore(), 1e-9);
+    }
+
+    /**
+     * Issue pushed out of the ranking keeps its score and comes back with its next likes.
+     */
+    @Test
+    void keepsScoreOfEvictedIssue() {
+        TrendingIssueIndex index = index(1);
+        like(index, 1L);
+        like(index, 1L);
+        for (int i = 0; i < 3; i++) {
+            like(index, 2L);
+        }
+        like(index, 1L);
+        like(index, 1L);
+
+        List<IssueTrendingResponseDto> top = index.findTop(null, null, 10);
+        assertEquals(List.of(1L), ids(top));
+        assertEquals(4, top.get(0).getScore(), 1e-9);
+    }
+
+    /**
+     * Ranking is filtered by category and square.
+     */
+    @Test
+    void filtersByCategoryAndSquare() {
+        TrendingIssueIndex index = index(10);
+        for (long issueId = 1; issueId <= 6; issueId++) {
+            for (int i = 0; i < issueId; i++) {
+                like(index, issueId);
+            }
+        }
+
+        assertEquals(List.of(6L, 4L, 2L), ids(index.findTop(Set.of(0L), null, 10)));
+        assertEquals(List.of(3L, 2L, 1L), ids(index.findTop(null, new Envelope(0, 3.5, 0, 3.5), 10)));
+        assertEquals(List.of(2L), ids(index.findTop(Set.of(0L), new Envelope(0, 3.5, 0, 3.5), 10)));
+    }
+
+    /**
+     * Issue that is no longer published is dropped from the ranking.
+     */
+    @Test
+    void dropsUnpublishedIssue() {
+        TrendingIssueIndex index = index(10);
+        like(index, 1L);
+        like(index, 2L);
+
+        Category category = new Category();
+        category.setId(1L);
+        Issue issue = new Issue();
+        issue.setId(1L);
+        issue.setCoordinates(point(1));
+        issue.setTitle("Issue 1");
+        issue.setCategory(category);
+        issue.setStatus(IssueStatus.SOLVED);
+        index.onIssueChanged(new IssueChangedEvent(issue));
+
+        assertEquals(List.of(2L), ids(index.findTop(null, null, 10)));
+    }
+
+    /**
+     * Scores stay exact after the weights have been rescaled.
+     */
+    @Test
+    void rescalesAfterLongTime() {
+        TrendingIssueIndex index = index(10);
+        like(index, 1L);
+        clock.advance(HALF_LIFE.multipliedBy(200));
+        Instant likedAt = clock.instant();
+        like(index, 2L);
+        like(index, 2L);
+        clock.advance(HALF_LIFE);
+        index.onLikeChanged(new IssueLikeChangedEvent(2L, "resident", false, likedAt));
+
+        List<IssueTrendingResponseDto> top = index.findTop(null, null, 10);
+
+        assertEquals(2L, top.get(0).getId());
+        assertEquals(0.5, top.get(0).getScore(), 1e-9);
+    }
+
+    private TrendingIssueIndex index(int capacity) {
+        return new TrendingIssueIndex(issueRepository, likeRepository, capacity, 100, HALF_LIFE, clock);
+    }
+
+    private void like(TrendingIssueIndex index, Long issueId) {
+        index.onLikeChanged(new IssueLikeChangedEvent(issueId, "resident", true, clock.instant()));
+    }
+
+    private double decayed(Instant likedAt) {
+        return Math.pow(2, -(double) Duration.between(likedAt, clock.instant()).toMillis() / HALF_LIFE.toMillis());
+    }
+
+    private static List<Long> ids(List<IssueTrendingResponseDto> issues) {
+        return issues.stream().map(IssueTrendingResponseDto::getId).toList();
+    }
+
+    private static IndexedIssue issue(Long issueId) {
+        return new IndexedIssue(issueId, point(issueId), "Issue " + issueId, issueId % 2,
+                IssueStatus.PUBLISHED, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    private static Point point(long issueId) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(issueId, issueId));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
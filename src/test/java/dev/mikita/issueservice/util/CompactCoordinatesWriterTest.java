@@ -0,0 +1,81 @@
+package dev.mikita.issueservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * The type Compact coordinates writer tests.
+ */
+class CompactCoordinatesWriterTest {
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    /**
+     * Empty result is the header only.
+     */
+    @Test
+    void writesEmptyFrame() {
+        assertArrayEquals(new byte[]{0, 0, 0, 0, 1}, new CompactCoordinatesWriter().toByteArray(true));
+    }
+
+    /**
+     * Points are written as zigzag varint deltas in 1e-7 degrees, latitude first.
+     */
+    @Test
+    void writesDeltas() {
+        CompactCoordinatesWriter writer = new CompactCoordinatesWriter();
+        // 1 and -1 units from zero
+        writer.write(point(-0.0000001, 0.0000001));
+        // -1 and +64 units from the previous point
+        writer.write(point(0.0000063, 0));
+
+        assertArrayEquals(new byte[]{0, 0, 0, 2, 0, 2, 1, 1, (byte) 0x80, 0x01}, writer.toByteArray(false));
+    }
+
+    /**
+     * Large deltas take several varint bytes.
+     */
+    @Test
+    void writesLargeDelta() {
+        CompactCoordinatesWriter writer = new CompactCoordinatesWriter();
+        // 900000000 and -1800000000 units, zigzag 1800000000 and 3599999999
+        writer.write(point(-180, 90));
+
+        assertArrayEquals(new byte[]{0, 0, 0, 1, 0,
+                (byte) 0x80, (byte) 0xA4, (byte) 0xA7, (byte) 0xDA, 0x06,
+                (byte) 0xFF, (byte) 0xC7, (byte) 0xCE, (byte) 0xB4, 0x0D}, writer.toByteArray(false));
+    }
+
+    /**
+     * Coordinates are rounded to 1e-7 degrees.
+     */
+    @Test
+    void roundsCoordinates() {
+        CompactCoordinatesWriter writer = new CompactCoordinatesWriter();
+        writer.write(point(0.00000014, 0.00000016));
+
+        assertArrayEquals(new byte[]{0, 0, 0, 1, 0, 4, 2}, writer.toByteArray(false));
+    }
+
+    /**
+     * Raw coordinates are written like the point they describe.
+     */
+    @Test
+    void writesRawCoordinates() {
+        CompactCoordinatesWriter points = new CompactCoordinatesWriter();
+        points.write(point(14.4378005, 50.0755381));
+        points.write(point(14.4212535, 50.0874654));
+        CompactCoordinatesWriter coordinates = new CompactCoordinatesWriter();
+        coordinates.write(14.4378005, 50.0755381);
+        coordinates.write(14.4212535, 50.0874654);
+
+        assertArrayEquals(points.toByteArray(false), coordinates.toByteArray(false));
+    }
+
+    private Point point(double longitude, double latitude) {
+        return geometryFactory.createPoint(new Coordinate(longitude, latitude));
+    }
+}
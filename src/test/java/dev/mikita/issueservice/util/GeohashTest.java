@@ -0,0 +1,75 @@
+package dev.mikita.issueservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The type Geohash tests.
+ */
+class GeohashTest {
+    /**
+     * Coordinates encode to the published reference geohashes.
+     */
+    @Test
+    void encodesReferencePoints() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", Geohash.encode(42.605, -5.603, 5));
+        assertEquals("s00000000000", Geohash.encode(0, 0, Geohash.MAX_PRECISION));
+    }
+
+    /**
+     * Point encodes with the longitude as x and the latitude as y.
+     */
+    @Test
+    void encodesPoint() {
+        GeometryFactory geometryFactory = new GeometryFactory();
+
+        assertEquals("u4pruydqqvj", Geohash.encode(geometryFactory.createPoint(new Coordinate(10.40744, 57.64911)), 11));
+    }
+
+    /**
+     * Lower precision is a prefix of the higher one.
+     */
+    @Test
+    void encodesEnclosingCellAsPrefix() {
+        String geohash = Geohash.encode(50.0755, 14.4378, Geohash.MAX_PRECISION);
+
+        for (int precision = 1; precision < Geohash.MAX_PRECISION; precision++) {
+            assertEquals(geohash.substring(0, precision), Geohash.encode(50.0755, 14.4378, precision));
+        }
+    }
+
+    /**
+     * Cover stays within the cell limit and contains the cells of the corners and the center of the square.
+     */
+    @Test
+    void coversSquare() {
+        List<String> cells = Geohash.cover(14.40, 50.05, 14.45, 50.10, 16);
+
+        assertTrue(cells.size() <= 16);
+        assertEquals(cells.size(), new HashSet<>(cells).size());
+        int precision = cells.get(0).length();
+        assertTrue(cells.stream().allMatch(cell -> cell.length() == precision));
+        for (double[] point : new double[][]{{50.05, 14.40}, {50.10, 14.45}, {50.05, 14.45}, {50.10, 14.40},
+                {50.075, 14.425}}) {
+            assertTrue(cells.contains(Geohash.encode(point[0], point[1], precision)));
+        }
+    }
+
+    /**
+     * Cover uses the finest precision that fits the limit.
+     */
+    @Test
+    void coversWithFinestPrecision() {
+        int precision = Geohash.cover(14.40, 50.05, 14.45, 50.10, 16).get(0).length();
+
+        assertTrue(Geohash.cover(14.40, 50.05, 14.45, 50.10, Integer.MAX_VALUE).get(0).length() > precision);
+        assertEquals(1, Geohash.cover(-180, -90, 180, 90, 1).get(0).length());
+    }
+}
@@ -0,0 +1,104 @@
+package dev.mikita.issueservice.util;
+
+import dev.mikita.issueservice.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The type Issue cursor tests.
+ */
+class IssueCursorTest {
+    /**
+     * Decoded cursor equals the encoded one, separators in the value included.
+     */
+    @Test
+    void roundTrips() {
+        IssueCursor cursor = IssueCursor.decode(new IssueCursor("title", 42L, "Broken | lamp").encode());
+
+        assertEquals("title", cursor.getFieldName());
+        assertEquals(42L, cursor.getId());
+        assertEquals("Broken | lamp", cursor.getValue());
+    }
+
+    /**
+     * Encoded cursor is safe to put in a URL.
+     */
+    @Test
+    void encodesUrlSafe() {
+        String encoded = new IssueCursor("title", 1L, "??>>~~").encode();
+
+        assertEquals(encoded, encoded.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    /**
+     * Distance cursor keeps the distance.
+     */
+    @Test
+    void roundTripsDistance() {
+        IssueCursor cursor = IssueCursor.decode(new IssueCursor(IssueCursor.DISTANCE, 7L, "1234.5").encode());
+
+        assertEquals(1234.5, cursor.getDistance());
+    }
+
+    /**
+     * Missing cursor means the first page.
+     */
+    @Test
+    void decodesFirstPage() {
+        assertNull(IssueCursor.decode(null));
+        assertNull(IssueCursor.decode(" "));
+    }
+
+    /**
+     * Cursor that is not base64 is rejected.
+     */
+    @Test
+    void rejectsInvalidEncoding() {
+        assertThrows(ValidationException.class, () -> IssueCursor.decode("not a cursor!"));
+    }
+
+    /**
+     * Cursor with missing parts is rejected.
+     */
+    @Test
+    void rejectsMissingParts() {
+        assertThrows(ValidationException.class, () -> IssueCursor.decode(encode("title|42")));
+    }
+
+    /**
+     * Cursor with an id that is not a number is rejected.
+     */
+    @Test
+    void rejectsInvalidId() {
+        assertThrows(ValidationException.class, () -> IssueCursor.decode(encode("title|1 OR 1=1|x")));
+    }
+
+    /**
+     * Cursor with a distance that is not a number is rejected.
+     */
+    @Test
+    void rejectsInvalidDistance() {
+        IssueCursor cursor = IssueCursor.decode(encode(IssueCursor.DISTANCE + "|7|far"));
+
+        assertThrows(ValidationException.class, cursor::getDistance);
+    }
+
+    /**
+     * Cursor of another ordering is rejected for a distance ordering.
+     */
+    @Test
+    void rejectsOtherOrdering() {
+        IssueCursor cursor = IssueCursor.decode(new IssueCursor("title", 7L, "1.5").encode());
+
+        assertThrows(ValidationException.class, cursor::getDistance);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}